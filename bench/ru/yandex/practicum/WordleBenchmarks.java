@@ -0,0 +1,27 @@
+package ru.yandex.practicum;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+запуск всех замеров с профилировщиком сборщика мусора (gc.alloc.rate.norm - байт на операцию)
+    файл словаря задаётся свойством -Dwordle.dictionary, по умолчанию words_ru.txt в рабочей папке
+    аргумент - регулярное выражение для выбора замеров, например "Dictionary"
+ */
+public class WordleBenchmarks {
+    static String dictionaryFile() {
+        return System.getProperty("wordle.dictionary", "words_ru.txt");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "ru\\.yandex\\.practicum\\.Wordle.*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Dwordle.dictionary=" + dictionaryFile())
+                .build();
+        new Runner(options).run();
+    }
+}
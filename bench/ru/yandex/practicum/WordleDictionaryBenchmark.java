@@ -0,0 +1,118 @@
+package ru.yandex.practicum;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+замеры горячих методов словаря на настоящем words_ru.txt
+    analyzeWord (строковый API и по индексам), filterWords и contains
+    пакетная оценка одной догадки против пакета случайных ответов - время приводится на одну пару
+    пары слов выбираются заранее, чтобы в замер не попадал генератор случайных чисел
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordleDictionaryBenchmark {
+    private static final int PAIRS = 1024;
+    // Ответов в одной пакетной оценке; от размера словаря не зависит
+    private static final int BATCH = 4096;
+
+    private WordleDictionary dictionary;
+    private String[] guesses;
+    private String[] answers;
+    private int[] guessIndexes;
+    private int[] answerIndexes;
+    private List<String> history;
+    private List<String> hints;
+    private int next;
+    private WordleBatchScorer scorer;
+    private long[] packedWords;
+    private int[] batchAnswers;
+    private int[] histogram;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dictionary = new WordleDictionaryLoader().loadDictionary(WordleBenchmarks.dictionaryFile());
+        dictionary.precomputePatterns();
+
+        SplittableRandom random = new SplittableRandom(42);
+        guesses = new String[PAIRS];
+        answers = new String[PAIRS];
+        guessIndexes = new int[PAIRS];
+        answerIndexes = new int[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            guessIndexes[i] = random.nextInt(dictionary.size());
+            answerIndexes[i] = random.nextInt(dictionary.getAnswerCount());
+            guesses[i] = dictionary.getWord(guessIndexes[i]);
+            answers[i] = dictionary.getWord(answerIndexes[i]);
+        }
+
+        scorer = new WordleBatchScorer(dictionary.getWordLength());
+        packedWords = new long[dictionary.size()];
+        for (int i = 0; i < packedWords.length; i++) {
+            packedWords[i] = dictionary.getPackedWord(i);
+        }
+        batchAnswers = new int[BATCH];
+        for (int i = 0; i < batchAnswers.length; i++) {
+            batchAnswers[i] = random.nextInt(dictionary.getAnswerCount());
+        }
+        histogram = new int[WordleFeedback.patternCount(dictionary.getWordLength())];
+
+        String answer = answers[0];
+        history = List.of(guesses[0], guesses[1]);
+        hints = List.of(dictionary.analyzeWord(guesses[0], answer), dictionary.analyzeWord(guesses[1], answer));
+    }
+
+    private int nextPair() {
+        next = (next + 1) & (PAIRS - 1);
+        return next;
+    }
+
+    @Benchmark
+    public String analyzeWord() {
+        int i = nextPair();
+        return dictionary.analyzeWord(guesses[i], answers[i]);
+    }
+
+    @Benchmark
+    public int patternByIndex() {
+        int i = nextPair();
+        return dictionary.getPattern(guessIndexes[i], answerIndexes[i]);
+    }
+
+    // Пакет из BATCH случайных ответов; время делится на BATCH - получается время на пару
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] batchHistogram() {
+        Arrays.fill(histogram, 0);
+        scorer.setGuess(packedWords[guessIndexes[nextPair()]]).histogram(packedWords, batchAnswers, BATCH,
+                histogram);
+        return histogram;
+    }
+
+    @Benchmark
+    public List<String> filterWordsFirstMove() {
+        return dictionary.filterWords(history.subList(0, 1), hints.subList(0, 1));
+    }
+
+    @Benchmark
+    public List<String> filterWordsSecondMove() {
+        return dictionary.filterWords(history, hints);
+    }
+
+    @Benchmark
+    public void contains(Blackhole blackhole) {
+        int i = nextPair();
+        blackhole.consume(dictionary.contains(guesses[i]));
+        blackhole.consume(dictionary.contains("абвгд"));
+    }
+}
@@ -0,0 +1,47 @@
+package ru.yandex.practicum;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+замер полной игры с автоходами от начала до конца
+    random - случайный кандидат, как в WordleGame без стратегии
+    entropy - энтропийная стратегия с дебютной книгой
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WordleGameBenchmark {
+    @Param({"random", "entropy"})
+    public String strategy;
+
+    private WordleDictionary dictionary;
+    private GuessStrategy guessStrategy;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dictionary = new WordleDictionaryLoader().loadDictionary(WordleBenchmarks.dictionaryFile());
+        dictionary.precomputePatterns();
+        if ("entropy".equals(strategy)) {
+            guessStrategy = new OpeningBookGuessStrategy(WordleOpeningBook.compute(dictionary),
+                    new EntropyGuessStrategy());
+        }
+    }
+
+    @Benchmark
+    public boolean autoPlayedGame() {
+        next = (next + 7919) % dictionary.getAnswerCount();
+        WordleGame game = new WordleGame(dictionary, dictionary.getWord(next));
+        game.setGuessStrategy(guessStrategy);
+        while (!game.isGameFinished() && game.getCandidateCount() > 0) {
+            game.makeGuess(game.getHint());
+        }
+        return game.isWon();
+    }
+}
@@ -0,0 +1,43 @@
+package ru.yandex.practicum;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+замеры загрузки словаря: текстовый файл, параллельный разбор и скомпилированный двоичный формат
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WordleLoaderBenchmark {
+    private final WordleDictionaryLoader loader = new WordleDictionaryLoader();
+    private File compiled;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        compiled = File.createTempFile("wordle-bench", WordleDictionaryLoader.COMPILED_SUFFIX);
+        compiled.deleteOnExit();
+        loader.compileDictionary(WordleBenchmarks.dictionaryFile(), compiled.getPath());
+    }
+
+    @Benchmark
+    public WordleDictionary loadText() throws IOException {
+        return loader.loadDictionary(WordleBenchmarks.dictionaryFile());
+    }
+
+    @Benchmark
+    public WordleDictionary loadTextParallel() throws IOException {
+        return loader.loadDictionaryParallel(WordleBenchmarks.dictionaryFile());
+    }
+
+    @Benchmark
+    public WordleDictionary loadCompiled() throws IOException {
+        return loader.loadCompiledDictionary(compiled.getPath());
+    }
+}
@@ -0,0 +1,26 @@
+package ru.yandex.practicum;
+
+/*
+стратегия-обёртка, которая запоминает ходы другой стратегии по истории игры
+    игры с одинаковым началом получают подсказку из WordleHintCache без повторного расчёта
+    ходы запоминаются отдельно для каждой стратегии; ход, который бюджет времени оборвал
+    на середине перебора, не запоминается, чтобы слабый ответ под нагрузкой не застрял в кэше
+ */
+public class CachingGuessStrategy implements GuessStrategy {
+    private final WordleHintCache cache;
+    private final GuessStrategy delegate;
+
+    public CachingGuessStrategy(WordleHintCache cache, GuessStrategy delegate) {
+        this.cache = cache;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int chooseGuess(WordleGame game) {
+        return cache.suggestion(game, delegate);
+    }
+
+    public WordleHintCache getCache() {
+        return cache;
+    }
+}
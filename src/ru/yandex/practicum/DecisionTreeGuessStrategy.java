@@ -0,0 +1,32 @@
+package ru.yandex.practicum;
+
+/*
+стратегия "по политике": каждый автоход - проход по готовому дереву решений, без оценки догадок
+    если дерево построено для другого словаря или игрок сходил не по дереву, ход выбирает запасная стратегия
+    она же выбирает ход, если в сложном режиме ход дерева не подходит под открытые подсказки
+ */
+public class DecisionTreeGuessStrategy implements GuessStrategy {
+    private final WordleDecisionTree tree;
+    private final GuessStrategy fallback;
+
+    public DecisionTreeGuessStrategy(WordleDecisionTree tree, GuessStrategy fallback) {
+        this.tree = tree;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public int chooseGuess(WordleGame game) {
+        return choose(game).getGuess();
+    }
+
+    @Override
+    public Choice choose(WordleGame game) {
+        if (tree.matches(game.getDictionary())) {
+            int guess = tree.nextGuess(game.getDictionary(), game.getPreviousGuesses(), game.getPreviousHints());
+            if (guess >= 0 && (!game.isHardMode() || game.isCandidate(guess))) {
+                return new Choice(guess, true);
+            }
+        }
+        return fallback.choose(game);
+    }
+}
@@ -0,0 +1,254 @@
+package ru.yandex.practicum;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+стратегия, которая выбирает слово с наибольшей ожидаемой информацией
+    каждое слово-догадка разбивает кандидатов на группы по коду подсказки
+    ENTROPY минимизирует сумму c * log2(c) по группам (то есть максимизирует энтропию)
+    MINIMAX минимизирует размер самой большой группы
+    догадки оцениваются параллельно в ForkJoinPool
+    бюджет ограничивает число оцениваемых догадок и время на ход
+    для нескольких досок (MultiBoardGame) оценки досок складываются - доски независимы,
+    поэтому ожидаемая информация догадки равна сумме информации по каждой доске
+ */
+public class EntropyGuessStrategy implements GuessStrategy {
+    public enum Mode {
+        ENTROPY,
+        MINIMAX
+    }
+
+    public static final int DEFAULT_MAX_GUESSES = 5000;
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 500;
+
+    // Догадок в одной подзадаче ForkJoin
+    private static final int CHUNK_SIZE = 64;
+
+    private final Mode mode;
+    private final int maxGuesses;
+    private final long timeBudgetNanos;
+    private final ForkJoinPool pool;
+
+    public EntropyGuessStrategy() {
+        this(Mode.ENTROPY, DEFAULT_MAX_GUESSES, DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    public EntropyGuessStrategy(Mode mode, int maxGuesses, long timeBudgetMillis) {
+        this(mode, maxGuesses, timeBudgetMillis, ForkJoinPool.commonPool());
+    }
+
+    public EntropyGuessStrategy(Mode mode, int maxGuesses, long timeBudgetMillis, ForkJoinPool pool) {
+        if (maxGuesses <= 0) {
+            throw new IllegalArgumentException("Число оцениваемых догадок должно быть положительным");
+        }
+        this.mode = mode;
+        this.maxGuesses = maxGuesses;
+        // Очень большой бюджет означает "без ограничения по времени"
+        this.timeBudgetNanos = timeBudgetMillis >= Long.MAX_VALUE / 1_000_000L
+                ? Long.MAX_VALUE : timeBudgetMillis * 1_000_000L;
+        this.pool = pool;
+    }
+
+    @Override
+    public int chooseGuess(WordleGame game) {
+        return choose(game).getGuess();
+    }
+
+    @Override
+    public Choice choose(WordleGame game) {
+        // В сложном режиме догадками могут быть только кандидаты
+        return choose(game.getDictionary(), new long[][] {game.candidates()}, game.isHardMode());
+    }
+
+    // Лучшая догадка для набора кандидатов или -1, если набор пуст
+    public int bestGuess(WordleDictionary dictionary, long[] candidates) {
+        return bestGuess(dictionary, new long[][] {candidates});
+    }
+
+    // То же, но с выбором догадки только среди кандидатов
+    public int bestGuess(WordleDictionary dictionary, long[] candidates, boolean candidatesOnly) {
+        return bestGuess(dictionary, new long[][] {candidates}, candidatesOnly);
+    }
+
+    // Лучшая догадка сразу для нескольких досок или -1, если кандидатов не осталось ни на одной
+    public int bestGuess(WordleDictionary dictionary, long[][] boards) {
+        return bestGuess(dictionary, boards, false);
+    }
+
+    private int bestGuess(WordleDictionary dictionary, long[][] boards, boolean candidatesOnly) {
+        return choose(dictionary, boards, candidatesOnly).getGuess();
+    }
+
+    private Choice choose(WordleDictionary dictionary, long[][] boards, boolean candidatesOnly) {
+        long[] union = new long[boards[0].length];
+        int[][] answers = new int[boards.length][];
+        int open = 0;
+        int largest = 0;
+        for (long[] board : boards) {
+            int[] boardAnswers = toIndexes(board);
+            if (boardAnswers.length == 1) {
+                // Доску с единственным кандидатом решаем сразу - это слово всё равно придётся назвать
+                return new Choice(boardAnswers[0], true);
+            }
+            if (boardAnswers.length > 0) {
+                answers[open++] = boardAnswers;
+                largest = Math.max(largest, boardAnswers.length);
+                for (int i = 0; i < union.length; i++) {
+                    union[i] |= board[i];
+                }
+            }
+        }
+        int[] allAnswers = toIndexes(union);
+        if (allAnswers.length <= 2) {
+            // Одного или двух кандидатов выгоднее просто называть
+            return new Choice(allAnswers.length == 0 ? -1 : allAnswers[0], true);
+        }
+        answers = Arrays.copyOf(answers, open);
+
+        int[] guesses = guessPool(dictionary, allAnswers, candidatesOnly);
+        double[] weights = new double[largest + 1];
+        for (int c = 2; c < weights.length; c++) {
+            weights[c] = c * (Math.log(c) / Math.log(2));
+        }
+
+        long start = System.nanoTime();
+        ScoreTask task = new ScoreTask(dictionary, guesses, answers, union, weights, start, 0, guesses.length);
+        int guess = pool.invoke(task).index;
+        // Подзадачи обрываются только после истечения бюджета, так что уложившийся в него поиск был полным
+        return new Choice(guess, System.nanoTime() - start <= timeBudgetNanos);
+    }
+
+    // Какие слова пробовать: весь словарь, если он укладывается в бюджет, иначе кандидаты
+    private int[] guessPool(WordleDictionary dictionary, int[] answers, boolean candidatesOnly) {
+        int size = dictionary.size();
+        if (!candidatesOnly && size <= maxGuesses) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        if (answers.length <= maxGuesses) {
+            return answers;
+        }
+        // Равномерная выборка кандидатов
+        int[] sample = new int[maxGuesses];
+        for (int i = 0; i < maxGuesses; i++) {
+            sample[i] = answers[(int) ((long) i * answers.length / maxGuesses)];
+        }
+        return sample;
+    }
+
+    static int[] toIndexes(long[] candidates) {
+        int[] indexes = new int[WordleCandidateIndex.count(candidates)];
+        int n = 0;
+        for (int i = WordleCandidateIndex.nextCandidate(candidates, 0); i >= 0;
+             i = WordleCandidateIndex.nextCandidate(candidates, i + 1)) {
+            indexes[n++] = i;
+        }
+        return indexes;
+    }
+
+    // Результат оценки: меньше score - лучше
+    private static final class Best {
+        final double score;
+        final boolean candidate;
+        final int index;
+
+        Best(double score, boolean candidate, int index) {
+            this.score = score;
+            this.candidate = candidate;
+            this.index = index;
+        }
+
+        // При равной оценке предпочитаем слово, которое само может оказаться ответом
+        boolean betterThan(Best other) {
+            if (other == null || score < other.score) {
+                return true;
+            }
+            return score == other.score && candidate && !other.candidate;
+        }
+    }
+
+    private final class ScoreTask extends RecursiveTask<Best> {
+        private static final long serialVersionUID = 1L;
+
+        // Задачи не сериализуются - словарь помечен transient только ради -Xlint:serial
+        private final transient WordleDictionary dictionary;
+        private final int[] guesses;
+        private final int[][] answers;
+        private final long[] candidates;
+        private final double[] weights;
+        private final long start;
+        private final int from;
+        private final int to;
+
+        ScoreTask(WordleDictionary dictionary, int[] guesses, int[][] answers, long[] candidates, double[] weights,
+                  long start, int from, int to) {
+            this.dictionary = dictionary;
+            this.guesses = guesses;
+            this.answers = answers;
+            this.candidates = candidates;
+            this.weights = weights;
+            this.start = start;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Best compute() {
+            if (to - from > CHUNK_SIZE) {
+                int middle = (from + to) >>> 1;
+                ScoreTask left = new ScoreTask(dictionary, guesses, answers, candidates, weights, start, from,
+                        middle);
+                ScoreTask right = new ScoreTask(dictionary, guesses, answers, candidates, weights, start, middle,
+                        to);
+                left.fork();
+                Best rightBest = right.compute();
+                Best leftBest = left.join();
+                return rightBest != null && rightBest.betterThan(leftBest) ? rightBest : leftBest;
+            }
+
+            int[] histogram = new int[WordleFeedback.patternCount(dictionary.getWordLength())];
+            Best best = null;
+            for (int i = from; i < to; i++) {
+                // Первую догадку оцениваем всегда, остальные - пока не вышло время
+                if (i > 0 && System.nanoTime() - start > timeBudgetNanos) {
+                    break;
+                }
+                int guess = guesses[i];
+                double score = 0;
+                for (int[] board : answers) {
+                    dictionary.countPatterns(guess, board, board.length, histogram);
+                    score += score(histogram);
+                }
+                Best current = new Best(score, isCandidate(guess), guess);
+                if (current.betterThan(best)) {
+                    best = current;
+                }
+            }
+            return best;
+        }
+
+        private double score(int[] histogram) {
+            if (mode == Mode.MINIMAX) {
+                int max = 0;
+                for (int count : histogram) {
+                    max = Math.max(max, count);
+                }
+                return max;
+            }
+            double sum = 0;
+            for (int count : histogram) {
+                sum += weights[count];
+            }
+            return sum;
+        }
+
+        private boolean isCandidate(int index) {
+            return (candidates[index >>> 6] & (1L << index)) != 0;
+        }
+    }
+}
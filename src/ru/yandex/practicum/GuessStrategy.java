@@ -0,0 +1,35 @@
+package ru.yandex.practicum;
+
+/*
+стратегия выбора слова для автохода
+    получает текущую игру (словарь, историю ходов и живой набор кандидатов)
+    возвращает индекс слова в словаре или -1, если подходящих слов нет
+    choose дополнительно сообщает, был ли перебор полным: ход, оборванный бюджетом времени,
+    может оказаться хуже обычного, и кэшировать его нельзя
+ */
+public interface GuessStrategy {
+    int chooseGuess(WordleGame game);
+
+    default Choice choose(WordleGame game) {
+        return new Choice(chooseGuess(game), true);
+    }
+
+    // Выбранный ход и признак того, что стратегия досчитала его до конца
+    final class Choice {
+        private final int guess;
+        private final boolean complete;
+
+        public Choice(int guess, boolean complete) {
+            this.guess = guess;
+            this.complete = complete;
+        }
+
+        public int getGuess() {
+            return guess;
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package ru.yandex.practicum;
+
+import ru.yandex.practicum.exception.*;
+
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+/*
+игра на нескольких досках сразу (Quordle - 4 доски, Octordle - 8)
+    у каждой доски свой ответ, одна догадка засчитывается на всех нерешённых досках
+    попыток на доски - 1 больше, чем в обычной игре: 9 для четырёх досок, 13 для восьми
+
+догадка упаковывается и ищется в словаре один раз, подсказки всех досок считает один WordleBatchScorer,
+который готовит буквы догадки один раз на ход; доски с одинаковой подсказкой сужаются одной общей битовой маской
+
+у каждой доски свой набор кандидатов; автоход выбирает слово с наибольшей суммарной информацией
+по всем нерешённым доскам (см. EntropyGuessStrategy.bestGuess для нескольких досок)
+ */
+public class MultiBoardGame {
+    private final WordleDictionary dictionary;
+    private final int[] answers;
+    private final long[][] candidates;
+    private final int[] candidateCounts;
+    // Номер хода, которым решена доска, или -1
+    private final int[] solvedAt;
+    private int solvedCount;
+    private int remainingSteps;
+    private boolean gameFinished = false;
+    private final List<String> previousGuesses = new ArrayList<>();
+    // Подсказки хода для всех досок; для уже решённых досок - -1
+    private final List<int[]> previousPatterns = new ArrayList<>();
+    private EntropyGuessStrategy guessStrategy = new EntropyGuessStrategy();
+
+    public MultiBoardGame(WordleDictionary dictionary, int boards) {
+        this(dictionary, boards, new SplittableRandom());
+    }
+
+    // Игра, полностью определяемая seed
+    public MultiBoardGame(WordleDictionary dictionary, int boards, long seed) {
+        this(dictionary, boards, new SplittableRandom(seed));
+    }
+
+    private MultiBoardGame(WordleDictionary dictionary, int boards, RandomGenerator random) {
+        this(dictionary, randomAnswers(dictionary, boards, random));
+    }
+
+    public MultiBoardGame(WordleDictionary dictionary, List<String> answers) {
+        if (answers.isEmpty()) {
+            throw new IllegalArgumentException("Нужна хотя бы одна доска");
+        }
+        this.dictionary = dictionary;
+        this.answers = new int[answers.size()];
+        for (int b = 0; b < this.answers.length; b++) {
+            this.answers[b] = dictionary.indexOf(answers.get(b));
+            if (this.answers[b] < 0) {
+                throw new IllegalArgumentException("Слово не найдено в словаре: " + answers.get(b));
+            }
+            if (!dictionary.isAnswer(this.answers[b])) {
+                throw new IllegalArgumentException("Слово не может быть ответом: " + answers.get(b));
+            }
+        }
+        this.candidates = new long[this.answers.length][];
+        this.candidateCounts = new int[this.answers.length];
+        this.solvedAt = new int[this.answers.length];
+        WordleCandidateIndex index = dictionary.getCandidateIndex();
+        for (int b = 0; b < this.answers.length; b++) {
+            candidates[b] = index.all();
+            candidateCounts[b] = dictionary.getAnswerCount();
+            solvedAt[b] = -1;
+        }
+        this.remainingSteps = dictionary.getMaxAttempts() + this.answers.length - 1;
+    }
+
+    // Разные ответы на всех досках, если словарь это позволяет
+    private static List<String> randomAnswers(WordleDictionary dictionary, int boards, RandomGenerator random) {
+        if (boards <= 0) {
+            throw new IllegalArgumentException("Нужна хотя бы одна доска");
+        }
+        Set<String> answers = new LinkedHashSet<>();
+        while (answers.size() < Math.min(boards, dictionary.getAnswerCount())) {
+            answers.add(dictionary.getRandomWord(random));
+        }
+        List<String> result = new ArrayList<>(answers);
+        while (result.size() < boards) {
+            result.add(dictionary.getRandomWord(random));
+        }
+        return result;
+    }
+
+    // Подсказки по всем доскам; для досок, решённых раньше, - null
+    public List<String> makeGuess(String guess) {
+        if (gameFinished) {
+            throw new IllegalStateException("Игра уже завершена");
+        }
+
+        String normalizedGuess = WordleDictionary.normalizeWord(guess);
+        if (normalizedGuess.length() != dictionary.getWordLength()) {
+            throw new InvalidWordLengthException("Слово должно содержать " + dictionary.getWordLength() + " букв");
+        }
+        int guessIndex = dictionary.indexOf(normalizedGuess);
+        if (guessIndex < 0) {
+            throw new WordNotFoundInDictionaryException("Слово не найдено в словаре");
+        }
+
+        long start = System.nanoTime();
+        int[] patterns = scoreBoards(guessIndex);
+        narrowCandidates(guessIndex, patterns);
+
+        int solved = WordleFeedback.solvedPattern(dictionary.getWordLength());
+        List<String> hints = new ArrayList<>(patterns.length);
+        for (int b = 0; b < patterns.length; b++) {
+            if (patterns[b] < 0) {
+                hints.add(null);
+                continue;
+            }
+            hints.add(WordleFeedback.toHint(patterns[b], dictionary.getWordLength()));
+            if (patterns[b] == solved) {
+                solvedAt[b] = previousGuesses.size();
+                solvedCount++;
+            }
+        }
+        previousGuesses.add(normalizedGuess);
+        previousPatterns.add(patterns);
+        remainingSteps--;
+        if (solvedCount == answers.length || remainingSteps == 0) {
+            gameFinished = true;
+        }
+
+        int totalCandidates = 0;
+        for (int count : candidateCounts) {
+            totalCandidates += count;
+        }
+        WordleMetrics metrics = WordleMetrics.global();
+        metrics.recordGuess(System.nanoTime() - start, totalCandidates);
+        if (gameFinished) {
+            metrics.recordGameFinished(isWon());
+        }
+        return hints;
+    }
+
+    // Подсказки догадки на всех нерешённых досках: догадка готовится в оценщике один раз, доски - по ответу
+    private int[] scoreBoards(int guessIndex) {
+        WordleBatchScorer scorer = new WordleBatchScorer(dictionary.getWordLength())
+                .setGuess(dictionary.getPackedWord(guessIndex));
+        int[] patterns = new int[answers.length];
+        for (int b = 0; b < answers.length; b++) {
+            patterns[b] = solvedAt[b] >= 0 ? -1 : scorer.score(dictionary.getPackedWord(answers[b]));
+        }
+        return patterns;
+    }
+
+    private void narrowCandidates(int guessIndex, int[] patterns) {
+        long packedGuess = dictionary.getPackedWord(guessIndex);
+        // Маски кандидатов по коду подсказки: доски с одинаковой подсказкой сужаются одной маской
+        Map<Integer, long[]> masks = null;
+        for (int b = 0; b < answers.length; b++) {
+            int pattern = patterns[b];
+            if (pattern < 0) {
+                continue;
+            }
+            long[] board = candidates[b];
+            if (candidateCounts[b] * 4 > dictionary.getAnswerCount()) {
+                // Кандидатов ещё много - дешевле пройтись по битовому индексу
+                if (masks == null) {
+                    masks = new HashMap<>();
+                }
+                long[] mask = masks.computeIfAbsent(pattern, p -> {
+                    WordleCandidateIndex index = dictionary.getCandidateIndex();
+                    long[] all = index.all();
+                    index.apply(all, packedGuess, p);
+                    return all;
+                });
+                for (int i = 0; i < board.length; i++) {
+                    board[i] &= mask[i];
+                }
+                candidateCounts[b] = WordleCandidateIndex.count(board);
+                continue;
+            }
+
+            // Иначе пакетно оцениваем догадку против выживших кандидатов
+            candidateCounts[b] = dictionary.retainMatching(guessIndex, pattern, board);
+        }
+    }
+
+    // Автоход, выбранный сразу по всем нерешённым доскам
+    public String getHint() {
+        long start = System.nanoTime();
+        String hint = chooseHint();
+        WordleMetrics.global().recordHint(System.nanoTime() - start);
+        return hint;
+    }
+
+    private String chooseHint() {
+        long[][] open = new long[answers.length - solvedCount][];
+        int n = 0;
+        for (int b = 0; b < answers.length; b++) {
+            if (solvedAt[b] < 0) {
+                open[n++] = candidates[b];
+            }
+        }
+        int guess = open.length == 0 ? -1 : guessStrategy.bestGuess(dictionary, open);
+        if (guess < 0) {
+            return "Нет подходящих слов в словаре";
+        }
+        return dictionary.getWord(guess);
+    }
+
+    public void setGuessStrategy(EntropyGuessStrategy guessStrategy) {
+        this.guessStrategy = guessStrategy;
+    }
+
+    public WordleDictionary getDictionary() {
+        return dictionary;
+    }
+
+    public int getBoardCount() {
+        return answers.length;
+    }
+
+    public int getCandidateCount(int board) {
+        return candidateCounts[board];
+    }
+
+    public boolean isSolved(int board) {
+        return solvedAt[board] >= 0;
+    }
+
+    // Номер хода (с нуля), которым решена доска, или -1
+    public int getSolvedAt(int board) {
+        return solvedAt[board];
+    }
+
+    public int getSolvedCount() {
+        return solvedCount;
+    }
+
+    public int getRemainingSteps() {
+        return remainingSteps;
+    }
+
+    public boolean isGameFinished() {
+        return gameFinished;
+    }
+
+    public boolean isWon() {
+        return solvedCount == answers.length;
+    }
+
+    public String getAnswer(int board) {
+        return dictionary.getWord(answers[board]);
+    }
+
+    public List<String> getPreviousGuesses() {
+        return Collections.unmodifiableList(previousGuesses);
+    }
+
+    // Подсказки одной доски по ходам до её решения
+    public List<String> getPreviousHints(int board) {
+        List<String> hints = new ArrayList<>();
+        for (int[] patterns : previousPatterns) {
+            if (patterns[board] >= 0) {
+                hints.add(WordleFeedback.toHint(patterns[board], dictionary.getWordLength()));
+            }
+        }
+        return hints;
+    }
+}
@@ -0,0 +1,38 @@
+package ru.yandex.practicum;
+
+/*
+стратегия, которая первые два хода берёт из дебютной книги
+    дальше, а также если игра пошла не по книге, ход выбирает запасная стратегия
+ */
+public class OpeningBookGuessStrategy implements GuessStrategy {
+    private final WordleOpeningBook book;
+    private final GuessStrategy fallback;
+
+    public OpeningBookGuessStrategy(WordleOpeningBook book, GuessStrategy fallback) {
+        this.book = book;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public int chooseGuess(WordleGame game) {
+        return choose(game).getGuess();
+    }
+
+    @Override
+    public Choice choose(WordleGame game) {
+        if (book.matches(game.getDictionary())) {
+            int moves = game.getPreviousGuesses().size();
+            if (moves == 0) {
+                return new Choice(book.getFirstGuess(), true);
+            }
+            if (moves == 1 && game.getDictionary().indexOf(game.getPreviousGuesses().get(0)) == book.getFirstGuess()) {
+                int guess = book.getSecondGuess(WordleFeedback.fromHint(game.getPreviousHints().get(0)));
+                // Книга не учитывает сложный режим: неподходящий под подсказки ход отдаём запасной стратегии
+                if (guess >= 0 && (!game.isHardMode() || game.isCandidate(guess))) {
+                    return new Choice(guess, true);
+                }
+            }
+        }
+        return fallback.choose(game);
+    }
+}
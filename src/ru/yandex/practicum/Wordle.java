@@ -3,12 +3,14 @@ package ru.yandex.practicum;
 import ru.yandex.practicum.exception.*;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 /*
 в главном классе нам нужно:
-    создать лог-файл (он должен передаваться во все классы)
+    создать лог-файл (он должен передаваться во все классы) - журнал событий пишется асинхронно, см. WordleEventLog
     создать загрузчик словарей WordleDictionaryLoader
     загрузить словарь WordleDictionary с помощью класса WordleDictionaryLoader
     затем создать игру WordleGame и передать ей словарь
@@ -20,20 +22,32 @@ import java.util.Scanner;
 public class Wordle {
 
     public static void main(String[] args) {
+        // Вторым аргументом - файл с загадываемыми словами; words_ru.txt тогда служит списком допустимых догадок
+        String answersFilename = args.length > 1 ? args[1] : null;
+
         // Внешний try-catch для обработки критических ошибок
-        try (PrintWriter logWriter = new PrintWriter(new FileWriter("wordle.log", StandardCharsets.UTF_8))) {
-            // Загружаем словарь из файла words_ru.txt
+        try (WordleEventLog log = new WordleEventLog("wordle.log")) {
+            // Длину слова можно передать первым аргументом, по умолчанию классические 5 букв
+            int wordLength = args.length > 0 ? parseWordLength(args[0]) : WordleDictionary.WORD_LENGTH;
+
+            // Загружаем словарь из файла words_ru.txt (со второго запуска - из скомпилированной копии)
             WordleDictionaryLoader loader = new WordleDictionaryLoader();
-            WordleDictionary dictionary = loader.loadDictionary("words_ru.txt");
+            WordleDictionary dictionary = answersFilename == null
+                    ? loader.loadDictionaryCached("words_ru.txt", wordLength)
+                    : loader.loadDictionary(answersFilename, "words_ru.txt", wordLength);
 
-            logInfo(logWriter, "Словарь загружен. Количество слов: " + dictionary.getWords().size());
+            log.info("dictionary_loaded", "words", dictionary.size(), "answers", dictionary.getAnswerCount(),
+                    "length", wordLength);
 
-            // Создаем игру
+            // Создаем игру; автоходы выбирает стратегия с максимальной информацией
             WordleGame game = new WordleGame(dictionary);
+            game.setGuessStrategy(createGuessStrategy(dictionary, answersFilename, log));
 
             // Запускаем игровой цикл в отдельном методе
-            runGameLoop(game, logWriter);
+            runGameLoop(game, log);
 
+        } catch (InvalidWordLengthException e) {
+            System.err.println(e.getMessage());
         } catch (FileNotFoundException e) {
             System.err.println("Файл словаря не найден: words_ru.txt");
             System.err.println("Поместите файл words_ru.txt в ту же папку, где находится программа.");
@@ -44,12 +58,53 @@ public class Wordle {
         }
     }
 
+    private static int parseWordLength(String argument) {
+        int wordLength;
+        try {
+            wordLength = Integer.parseInt(argument.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidWordLengthException("Длина слова должна быть числом: " + argument);
+        }
+        if (wordLength <= 0 || wordLength > WordleAlphabet.MAX_WORD_LENGTH) {
+            throw new InvalidWordLengthException("Длина слова должна быть от 1 до " + WordleAlphabet.MAX_WORD_LENGTH
+                    + ": " + argument);
+        }
+        return wordLength;
+    }
+
+    // Первые ходы берём из дебютной книги рядом со словарём, если она уже посчитана;
+    // иначе книга считается в фоне к следующему запуску, а ходы выбирает стратегия с бюджетом времени;
+    // если рядом лежит дерево решений (WordleDecisionTreeBuilder), автоходы идут по нему
+    private static GuessStrategy createGuessStrategy(WordleDictionary dictionary, String answersFilename,
+                                                     WordleEventLog log) {
+        GuessStrategy strategy = new EntropyGuessStrategy();
+        try {
+            Path treePath = Paths.get(WordleDecisionTree.filename("words_ru.txt", dictionary));
+            if (Files.isRegularFile(treePath)) {
+                WordleDecisionTree tree = WordleDecisionTree.read(treePath);
+                if (tree != null && tree.matches(dictionary)) {
+                    return new DecisionTreeGuessStrategy(tree, strategy);
+                }
+            }
+            Path bookPath = WordleOpeningBook.path("words_ru.txt", answersFilename, dictionary.getWordLength());
+            WordleOpeningBook book = WordleOpeningBook.load(dictionary, bookPath);
+            if (book == null) {
+                WordleOpeningBook.computeInBackground(dictionary, bookPath);
+                return strategy;
+            }
+            return new OpeningBookGuessStrategy(book, strategy);
+        } catch (IOException e) {
+            log.warn("opening_book_unavailable", "reason", e.getMessage());
+            return strategy;
+        }
+    }
+
     // Метод для игрового цикла
-    private static void runGameLoop(WordleGame game, PrintWriter logWriter) {
+    private static void runGameLoop(WordleGame game, WordleEventLog log) {
         try (Scanner scanner = new Scanner(System.in, "UTF-8")) {
             System.out.println("Добро пожаловать в Wordle!");
-            System.out.println("Угадайте слово из 5 букв.");
-            System.out.println("У вас есть 6 попыток.");
+            System.out.println("Угадайте слово из " + game.getDictionary().getWordLength() + " букв.");
+            System.out.println("У вас есть " + game.getRemainingSteps() + " попыток.");
             System.out.println("После ввода слова вы увидите подсказку:");
             System.out.println("  + - буква на правильной позиции");
             System.out.println("  ^ - буква есть в слове, но на другой позиции");
@@ -66,24 +121,24 @@ public class Wordle {
 
                 if (input.isEmpty()) {
                     // Компьютер играет сам
-                    handleAutoMove(game, logWriter);
+                    handleAutoMove(game, log);
                 } else {
                     // Игрок вводит слово
-                    handlePlayerMove(game, input, logWriter);
+                    handlePlayerMove(game, input, log);
                 }
             }
         } catch (Exception e) {
-            logError(logWriter, "Критическая ошибка в игровом цикле: " + e.getMessage());
+            log.error("game_loop_failed", "reason", e.getMessage());
             System.err.println("Произошла ошибка во время игры: " + e.getMessage());
         }
     }
 
     // Обработка автохода (нажатие Enter)
-    private static void handleAutoMove(WordleGame game, PrintWriter logWriter) {
+    private static void handleAutoMove(WordleGame game, WordleEventLog log) {
         String hint = game.getHint();
         if (hint.equals("Нет подходящих слов в словаре")) {
             System.out.println("Ошибка: " + hint);
-            logWarning(logWriter, "Нет подходящих слов для подсказки");
+            log.warn("no_candidates");
             return;
         }
 
@@ -92,74 +147,50 @@ public class Wordle {
         try {
             String result = game.makeGuess(hint);
             System.out.println("Результат: " + result);
-            logInfo(logWriter, "Автоход: " + hint + " -> " + result);
+            log.info("auto_move", "guess", hint, "result", result);
 
             if (game.isGameFinished() && game.isWon()) {
                 System.out.println("\nКомпьютер угадал слово!");
-                logInfo(logWriter, "Игра выиграна компьютером. Загаданное слово: " + game.getAnswer());
+                log.info("game_won", "player", "computer", "answer", game.getAnswer());
             } else if (game.isGameFinished()) {
                 System.out.println("\nИгра окончена. Компьютер проиграл.");
                 System.out.println("Загаданное слово: " + game.getAnswer());
-                logInfo(logWriter, "Игра проиграна компьютером. Загаданное слово: " + game.getAnswer());
+                log.info("game_lost", "player", "computer", "answer", game.getAnswer());
             }
 
         } catch (WordleGameException e) {
             System.out.println("Ошибка при автоходе: " + e.getMessage());
-            logError(logWriter, "Ошибка при автоходе: " + e.getMessage());
+            log.error("auto_move_failed", "reason", e.getMessage());
         }
     }
 
     // Обработка хода игрока
-    private static void handlePlayerMove(WordleGame game, String input, PrintWriter logWriter) {
+    private static void handlePlayerMove(WordleGame game, String input, WordleEventLog log) {
         try {
             String result = game.makeGuess(input);
             System.out.println("Результат: " + result);
-            logInfo(logWriter, "Введено слово: " + input + ", результат: " + result);
+            log.info("player_move", "guess", input, "result", result);
 
             if (game.isGameFinished() && game.isWon()) {
                 System.out.println("\nПоздравляем! Вы угадали слово!");
-                logInfo(logWriter, "Игра выиграна игроком. Загаданное слово: " + game.getAnswer());
+                log.info("game_won", "player", "human", "answer", game.getAnswer());
             } else if (game.isGameFinished()) {
                 System.out.println("\nИгра окончена. Вы проиграли.");
                 System.out.println("Загаданное слово: " + game.getAnswer());
-                logInfo(logWriter, "Игра проиграна игроком. Загаданное слово: " + game.getAnswer());
+                log.info("game_lost", "player", "human", "answer", game.getAnswer());
             }
 
         } catch (WordNotFoundInDictionaryException e) {
             System.out.println("Ошибка: " + e.getMessage());
             System.out.println("Попробуйте другое слово.");
-            logWarning(logWriter, "Слово не найдено в словаре: " + input);
+            log.warn("word_not_found", "guess", input);
         } catch (InvalidInputException e) {
             System.out.println("Ошибка: " + e.getMessage());
-            logWarning(logWriter, "Некорректный ввод: " + input);
+            log.warn("invalid_input", "guess", input);
         } catch (WordleGameException e) {
             // Ловим общий WordleGameException для других случаев
             System.out.println("Ошибка игры: " + e.getMessage());
-            logError(logWriter, "Ошибка игры: " + e.getMessage());
-        }
-    }
-
-    private static void logInfo(PrintWriter logWriter, String message) {
-        String logMessage = "[INFO] " + message;
-        if (logWriter != null) {
-            logWriter.println(logMessage);
-            logWriter.flush();
-        }
-    }
-
-    private static void logWarning(PrintWriter logWriter, String message) {
-        String logMessage = "[WARN] " + message;
-        if (logWriter != null) {
-            logWriter.println(logMessage);
-            logWriter.flush();
-        }
-    }
-
-    private static void logError(PrintWriter logWriter, String message) {
-        String logMessage = "[ERROR] " + message;
-        if (logWriter != null) {
-            logWriter.println(logMessage);
-            logWriter.flush();
+            log.error("game_error", "reason", e.getMessage());
         }
     }
 }
@@ -0,0 +1,103 @@
+package ru.yandex.practicum;
+
+/*
+алфавит словаря: каждой допустимой букве соответствует 6-битный код (1..63)
+    код 0 зарезервирован, поэтому упакованное слово никогда не равно 0
+    слово упаковывается в long: буква i занимает биты [6 * i, 6 * i + 6)
+    нормализация (trim, нижний регистр, ё -> е) выполняется прямо при упаковке, без создания строк
+ */
+public final class WordleAlphabet {
+    public static final int BITS = 6;
+    public static final int SIZE = 1 << BITS;
+    public static final int MASK = SIZE - 1;
+    // В long помещается не больше 10 букв по 6 бит
+    public static final int MAX_WORD_LENGTH = Long.SIZE / BITS;
+    public static final long INVALID = -1L;
+
+    private static final char[] LETTERS = new char[SIZE];
+    private static final byte[] CODES = new byte['я' + 1];
+
+    static {
+        int code = 1;
+        for (char c = 'а'; c <= 'я'; c++) {
+            code = register(c, code);
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            code = register(c, code);
+        }
+        code = register('-', code);
+        code = register(' ', code);
+        register('\'', code);
+    }
+
+    private WordleAlphabet() {
+    }
+
+    private static int register(char letter, int code) {
+        LETTERS[code] = letter;
+        CODES[letter] = (byte) code;
+        return code + 1;
+    }
+
+    // Код уже нормализованной буквы или 0, если буква не поддерживается
+    public static int code(char letter) {
+        return letter < CODES.length ? CODES[letter] : 0;
+    }
+
+    public static char letter(int code) {
+        return LETTERS[code];
+    }
+
+    // Код буквы на позиции position упакованного слова
+    public static int letterAt(long packed, int position) {
+        return (int) (packed >>> (position * BITS)) & MASK;
+    }
+
+    // Упаковка слова с нормализацией "на лету"; INVALID, если длина не та или есть неизвестные буквы
+    public static long pack(CharSequence word, int length) {
+        if (word == null) {
+            return INVALID;
+        }
+        return pack(word, 0, word.length(), length);
+    }
+
+    // Упаковка фрагмента [from, to) текста, например строки внутри большого буфера
+    public static long pack(CharSequence text, int from, int to, int length) {
+        if (length > MAX_WORD_LENGTH) {
+            return INVALID;
+        }
+        int start = from;
+        int end = to;
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (end - start != length) {
+            return INVALID;
+        }
+
+        long packed = 0;
+        for (int i = 0; i < length; i++) {
+            char c = Character.toLowerCase(text.charAt(start + i));
+            if (c == 'ё') {
+                c = 'е';
+            }
+            int code = code(c);
+            if (code == 0) {
+                return INVALID;
+            }
+            packed |= (long) code << (i * BITS);
+        }
+        return packed;
+    }
+
+    public static String unpack(long packed, int length) {
+        char[] letters = new char[length];
+        for (int i = 0; i < length; i++) {
+            letters[i] = letter(letterAt(packed, i));
+        }
+        return new String(letters);
+    }
+}
@@ -0,0 +1,113 @@
+package ru.yandex.practicum;
+
+/*
+пакетная оценка одной догадки против многих ответов
+    буквы догадки и веса разрядов готовятся один раз на догадку
+    зелёные позиции находятся сразу для всего слова: упакованные слова сравниваются XOR-ом,
+    и нулевые 6-битные поля выделяются несколькими сдвигами (SWAR - "SIMD внутри регистра")
+    жёлтые ищутся одним проходом по буквам ответа: для каждой буквы догадки заранее известна маска её позиций,
+    и буква ответа занимает самую левую ещё свободную такую позицию - как в WordleFeedback.score
+    код подсказки собирается из двух масок позиций по заранее посчитанной таблице весов
+    единственный цикл - по длине слова с простым телом, который JIT разворачивает
+
+результат совпадает с WordleFeedback.score; объект хранит состояние текущей догадки,
+поэтому один экземпляр используется одним потоком
+ */
+public final class WordleBatchScorer {
+    // Младший бит каждого 6-битного поля
+    private static final long FIELD_LOW_BITS;
+
+    static {
+        long bits = 0;
+        for (int i = 0; i < WordleAlphabet.MAX_WORD_LENGTH; i++) {
+            bits |= 1L << (i * WordleAlphabet.BITS);
+        }
+        FIELD_LOW_BITS = bits;
+    }
+
+    private final int wordLength;
+    private final long fieldMask;
+    private final int solvedPattern;
+    // Сумма весов 3^i по позициям из маски
+    private final int[] maskWeights;
+    // Маска позиций каждой буквы в текущей догадке
+    private final int[] letterPositions = new int[WordleAlphabet.SIZE];
+    private long guess;
+
+    public WordleBatchScorer(int wordLength) {
+        if (wordLength <= 0 || wordLength > WordleAlphabet.MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Неподдерживаемая длина слова: " + wordLength);
+        }
+        this.wordLength = wordLength;
+        this.fieldMask = FIELD_LOW_BITS & (wordLength == WordleAlphabet.MAX_WORD_LENGTH
+                ? -1L : (1L << (wordLength * WordleAlphabet.BITS)) - 1);
+        this.solvedPattern = WordleFeedback.solvedPattern(wordLength);
+        this.maskWeights = new int[1 << wordLength];
+        for (int mask = 1; mask < maskWeights.length; mask++) {
+            int position = Integer.numberOfTrailingZeros(mask);
+            maskWeights[mask] = maskWeights[mask & (mask - 1)] + WordleFeedback.patternCount(position);
+        }
+    }
+
+    // Догадка, против которой оцениваются следующие ответы
+    public WordleBatchScorer setGuess(long guess) {
+        for (int i = 0; i < wordLength; i++) {
+            letterPositions[WordleAlphabet.letterAt(this.guess, i)] = 0;
+        }
+        this.guess = guess;
+        for (int i = 0; i < wordLength; i++) {
+            letterPositions[WordleAlphabet.letterAt(guess, i)] |= 1 << i;
+        }
+        return this;
+    }
+
+    // Код подсказки текущей догадки для одного упакованного ответа
+    public int score(long answer) {
+        long diff = guess ^ answer;
+        diff |= diff >>> 1;
+        diff |= diff >>> 2;
+        diff |= diff >>> 2;
+        // Бит 6 * i установлен, если буква i совпала
+        long exact = ~diff & fieldMask;
+        if (exact == fieldMask) {
+            return solvedPattern;
+        }
+
+        // Маска зелёных позиций; они не участвуют в поиске жёлтых
+        int exactPositions = 0;
+        for (int i = 0; i < wordLength; i++) {
+            exactPositions |= (int) (exact >>> (i * WordleAlphabet.BITS - i)) & (1 << i);
+        }
+        int taken = exactPositions;
+        for (int j = 0; j < wordLength; j++) {
+            if ((exactPositions & (1 << j)) == 0) {
+                int free = letterPositions[WordleAlphabet.letterAt(answer, j)] & ~taken;
+                taken |= free & -free;
+            }
+        }
+        return WordleFeedback.EXACT * maskWeights[exactPositions] + maskWeights[taken & ~exactPositions];
+    }
+
+    // Коды подсказок для ответов words[answers[0..count)] в patterns; нужно не больше 256 кодов
+    public void score(long[] words, int[] answers, int count, byte[] patterns) {
+        for (int i = 0; i < count; i++) {
+            patterns[i] = (byte) score(words[answers[i]]);
+        }
+    }
+
+    // Гистограмма подсказок для ответов words[answers[0..count)]; histogram дополняется
+    public void histogram(long[] words, int[] answers, int count, int[] histogram) {
+        for (int i = 0; i < count; i++) {
+            histogram[score(words[answers[i]])]++;
+        }
+    }
+
+    // То же для набора кандидатов в блоках [fromBlock, toBlock) битового набора
+    public void histogram(long[] words, long[] candidates, int fromBlock, int toBlock, int[] histogram) {
+        for (int block = fromBlock; block < toBlock; block++) {
+            for (long bits = candidates[block]; bits != 0; bits &= bits - 1) {
+                histogram[score(words[(block << 6) + Long.numberOfTrailingZeros(bits)])]++;
+            }
+        }
+    }
+}
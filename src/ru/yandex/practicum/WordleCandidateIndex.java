@@ -0,0 +1,184 @@
+package ru.yandex.practicum;
+
+import java.util.Arrays;
+
+/*
+битовый индекс словаря для фильтрации кандидатов
+    набор кандидатов - это long[], где бит i означает "слово с индексом i ещё подходит"
+    для каждой позиции и буквы хранится битсет слов с этой буквой на этой позиции
+    для каждой буквы и числа k хранится битсет слов, где буква встречается хотя бы k раз
+    применение одной подсказки сводится к нескольким операциям AND / ANDNOT над long[]
+ */
+public final class WordleCandidateIndex {
+    private final int size;
+    private final int wordLength;
+    private final int blocks;
+    // [позиция][код буквы] -> битсет, null если таких слов нет
+    private final long[][][] positionLetters;
+    // [код буквы][k] -> битсет слов, где буква встречается не меньше k раз
+    private final long[][][] letterCounts;
+
+    WordleCandidateIndex(long[] words, int size, int wordLength) {
+        this.size = size;
+        this.wordLength = wordLength;
+        this.blocks = (size + 63) >>> 6;
+        this.positionLetters = new long[wordLength][WordleAlphabet.SIZE][];
+        this.letterCounts = new long[WordleAlphabet.SIZE][wordLength + 1][];
+
+        int[] counts = new int[WordleAlphabet.SIZE];
+        for (int index = 0; index < size; index++) {
+            long word = words[index];
+            long bit = 1L << index;
+            int block = index >>> 6;
+            for (int position = 0; position < wordLength; position++) {
+                int letter = WordleAlphabet.letterAt(word, position);
+                bitset(positionLetters[position], letter)[block] |= bit;
+                counts[letter]++;
+            }
+            for (int position = 0; position < wordLength; position++) {
+                int letter = WordleAlphabet.letterAt(word, position);
+                for (int k = 1; k <= counts[letter]; k++) {
+                    bitset(letterCounts[letter], k)[block] |= bit;
+                }
+                counts[letter] = 0;
+            }
+        }
+    }
+
+    private long[] bitset(long[][] slots, int slot) {
+        if (slots[slot] == null) {
+            slots[slot] = new long[blocks];
+        }
+        return slots[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Новый набор кандидатов, в котором подходят все слова словаря
+    public long[] all() {
+        long[] candidates = new long[blocks];
+        for (int i = 0; i < size >>> 6; i++) {
+            candidates[i] = -1L;
+        }
+        if ((size & 63) != 0) {
+            candidates[blocks - 1] = (1L << (size & 63)) - 1;
+        }
+        return candidates;
+    }
+
+    // Сужение набора кандидатов по одной подсказке, без выделения памяти
+    public void apply(long[] candidates, long guess, int pattern) {
+        int remaining = pattern;
+        for (int position = 0; position < wordLength; position++) {
+            int letter = WordleAlphabet.letterAt(guess, position);
+            long[] bits = positionLetters[position][letter];
+            if (remaining % 3 == WordleFeedback.EXACT) {
+                and(candidates, bits);
+            } else {
+                andNot(candidates, bits);
+            }
+            remaining /= 3;
+        }
+
+        // Для каждой различной буквы догадки проверяем число её вхождений
+        for (int position = 0; position < wordLength; position++) {
+            int letter = WordleAlphabet.letterAt(guess, position);
+            if (seenBefore(guess, position, letter)) {
+                continue;
+            }
+            int marked = 0;
+            boolean absent = false;
+            int digits = pattern;
+            for (int j = 0; j < wordLength; j++) {
+                if (WordleAlphabet.letterAt(guess, j) == letter) {
+                    if (digits % 3 == WordleFeedback.NO) {
+                        absent = true;
+                    } else {
+                        marked++;
+                    }
+                }
+                digits /= 3;
+            }
+            if (marked > 0) {
+                and(candidates, letterCounts[letter][marked]);
+            }
+            // Серая буква означает, что в ответе её ровно столько, сколько отмечено
+            if (absent && marked < wordLength) {
+                andNot(candidates, letterCounts[letter][marked + 1]);
+            }
+        }
+    }
+
+    private boolean seenBefore(long guess, int position, int letter) {
+        for (int j = 0; j < position; j++) {
+            if (WordleAlphabet.letterAt(guess, j) == letter) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void and(long[] candidates, long[] bits) {
+        if (bits == null) {
+            Arrays.fill(candidates, 0L);
+            return;
+        }
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] &= bits[i];
+        }
+    }
+
+    private static void andNot(long[] candidates, long[] bits) {
+        if (bits == null) {
+            return;
+        }
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] &= ~bits[i];
+        }
+    }
+
+    // Количество кандидатов в наборе
+    public static int count(long[] candidates) {
+        int count = 0;
+        for (long block : candidates) {
+            count += Long.bitCount(block);
+        }
+        return count;
+    }
+
+    // Индекс следующего кандидата начиная с from или -1
+    public static int nextCandidate(long[] candidates, int from) {
+        int block = from >>> 6;
+        if (block >= candidates.length) {
+            return -1;
+        }
+        long bits = candidates[block] & (-1L << (from & 63));
+        while (true) {
+            if (bits != 0) {
+                return (block << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++block == candidates.length) {
+                return -1;
+            }
+            bits = candidates[block];
+        }
+    }
+
+    // Индекс n-го по счёту кандидата (с нуля) или -1
+    public static int nthCandidate(long[] candidates, int n) {
+        for (int block = 0; block < candidates.length; block++) {
+            long bits = candidates[block];
+            int count = Long.bitCount(bits);
+            if (n < count) {
+                for (int i = 0; i < n; i++) {
+                    bits &= bits - 1;
+                }
+                return (block << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            n -= count;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,265 @@
+package ru.yandex.practicum;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+готовое дерево решений для словаря: в каждом узле догадка, из узла - переходы по кодам подсказок
+    строится один раз (WordleDecisionTreeBuilder), хранится плоскими массивами и в файле рядом со словарём
+    автоход по дереву - проход от корня по истории ходов, без оценки догадок во время игры
+
+формат файла: MAGIC, хеш словаря, длина слова, число узлов, число переходов,
+    для каждого узла - индекс догадки и флаг "догадка может быть ответом",
+    начала списков переходов, затем коды подсказок (short) и номера дочерних узлов
+ */
+public final class WordleDecisionTree {
+    public static final String FILE_SUFFIX = ".tree";
+
+    private static final int MAGIC = 0x57445431; // "WDT1"
+
+    private final long contentHash;
+    private final int wordLength;
+    private final int[] guesses;
+    // Догадка узла сама является одним из ответов, которые до него доходят
+    private final boolean[] solves;
+    // Переходы узла n: [firstEdge[n], firstEdge[n + 1]), коды подсказок по возрастанию
+    private final int[] firstEdge;
+    private final int[] edgePatterns;
+    private final int[] edgeChildren;
+    private final long totalGuesses;
+    private final int answerCount;
+    private final int maxDepth;
+    // Наибольший индекс догадки: дерево подходит только словарю, где есть такое слово
+    private final int maxGuess;
+
+    private WordleDecisionTree(long contentHash, int wordLength, int[] guesses, boolean[] solves, int[] firstEdge,
+                               int[] edgePatterns, int[] edgeChildren) {
+        this.contentHash = contentHash;
+        this.wordLength = wordLength;
+        this.guesses = guesses;
+        this.solves = solves;
+        this.firstEdge = firstEdge;
+        this.edgePatterns = edgePatterns;
+        this.edgeChildren = edgeChildren;
+
+        // Каждое слово угадывается в узле, где догадка совпала с ответом; ходов столько, какова глубина узла
+        int[] depths = new int[guesses.length];
+        long total = 0;
+        int answers = 0;
+        int deepest = 0;
+        for (int node = 0; node < guesses.length; node++) {
+            if (solves[node]) {
+                total += depths[node] + 1;
+                answers++;
+                deepest = Math.max(deepest, depths[node] + 1);
+            }
+            for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+                depths[edgeChildren[edge]] = depths[node] + 1;
+            }
+        }
+        this.totalGuesses = total;
+        this.answerCount = answers;
+        this.maxDepth = deepest;
+        this.maxGuess = Arrays.stream(guesses).max().orElse(-1);
+    }
+
+    public static WordleDecisionTree build(WordleDictionary dictionary) {
+        return new WordleDecisionTreeBuilder(dictionary).build();
+    }
+
+    // Раскладка дерева поиска в массивы; узлы нумеруются в ширину, поэтому дети всегда после родителя
+    static WordleDecisionTree of(WordleDictionary dictionary, WordleDecisionTreeBuilder.Node root) {
+        int nodeCount = 0;
+        int edgeCount = 0;
+        ArrayDeque<WordleDecisionTreeBuilder.Node> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            WordleDecisionTreeBuilder.Node node = queue.poll();
+            nodeCount++;
+            edgeCount += node.children.length;
+            queue.addAll(Arrays.asList(node.children));
+        }
+
+        int[] guesses = new int[nodeCount];
+        boolean[] solves = new boolean[nodeCount];
+        int[] firstEdge = new int[nodeCount + 1];
+        int[] edgePatterns = new int[edgeCount];
+        int[] edgeChildren = new int[edgeCount];
+        int next = 1;
+        int edge = 0;
+        queue.add(root);
+        for (int id = 0; id < nodeCount; id++) {
+            WordleDecisionTreeBuilder.Node node = queue.poll();
+            guesses[id] = node.guess;
+            solves[id] = node.solves;
+            firstEdge[id] = edge;
+            for (int i = 0; i < node.children.length; i++) {
+                edgePatterns[edge] = node.patterns[i];
+                edgeChildren[edge++] = next++;
+                queue.add(node.children[i]);
+            }
+        }
+        firstEdge[nodeCount] = edge;
+        return new WordleDecisionTree(dictionary.getContentHash(), dictionary.getWordLength(), guesses, solves,
+                firstEdge, edgePatterns, edgeChildren);
+    }
+
+    // Дерево лежит рядом с файлом словаря; если его нет или оно от другого словаря - строим и сохраняем
+    public static WordleDecisionTree loadOrCompute(WordleDictionary dictionary, String sourceFilename)
+            throws IOException {
+        Path path = Paths.get(filename(sourceFilename, dictionary));
+        if (Files.isRegularFile(path)) {
+            WordleDecisionTree tree = read(path);
+            if (tree != null && tree.matches(dictionary)) {
+                return tree;
+            }
+        }
+        WordleDecisionTree tree = build(dictionary);
+        tree.write(path);
+        return tree;
+    }
+
+    // Для каждой длины слова своё дерево
+    static String filename(String sourceFilename, WordleDictionary dictionary) {
+        return dictionary.getWordLength() == WordleDictionary.WORD_LENGTH
+                ? sourceFilename + FILE_SUFFIX
+                : sourceFilename + "." + dictionary.getWordLength() + FILE_SUFFIX;
+    }
+
+    // null, если файл не является деревом решений
+    public static WordleDecisionTree read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            long contentHash = in.readLong();
+            int wordLength = in.readInt();
+            int nodeCount = in.readInt();
+            int edgeCount = in.readInt();
+            if (wordLength <= 0 || wordLength > WordleAlphabet.MAX_WORD_LENGTH || nodeCount <= 0
+                    || edgeCount != nodeCount - 1) {
+                return null;
+            }
+
+            int[] guesses = new int[nodeCount];
+            boolean[] solves = new boolean[nodeCount];
+            for (int node = 0; node < nodeCount; node++) {
+                guesses[node] = in.readInt();
+                solves[node] = in.readBoolean();
+                if (guesses[node] < 0) {
+                    return null;
+                }
+            }
+            // Списки переходов идут подряд: начала не убывают и не выходят за число переходов
+            int[] firstEdge = new int[nodeCount + 1];
+            for (int node = 0; node <= nodeCount; node++) {
+                firstEdge[node] = in.readInt();
+                if (node > 0 && firstEdge[node] < firstEdge[node - 1]) {
+                    return null;
+                }
+            }
+            if (firstEdge[0] != 0 || firstEdge[nodeCount] != edgeCount) {
+                return null;
+            }
+            int patternCount = WordleFeedback.patternCount(wordLength);
+            int[] edgePatterns = new int[edgeCount];
+            int[] edgeChildren = new int[edgeCount];
+            for (int edge = 0; edge < edgeCount; edge++) {
+                edgePatterns[edge] = in.readUnsignedShort();
+                if (edgePatterns[edge] >= patternCount) {
+                    return null;
+                }
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+                    edgeChildren[edge] = in.readInt();
+                    // Дети всегда после родителя, коды подсказок узла строго по возрастанию - иначе файл повреждён
+                    if (edgeChildren[edge] <= node || edgeChildren[edge] >= nodeCount
+                            || edge > firstEdge[node] && edgePatterns[edge] <= edgePatterns[edge - 1]) {
+                        return null;
+                    }
+                }
+            }
+            return new WordleDecisionTree(contentHash, wordLength, guesses, solves, firstEdge, edgePatterns,
+                    edgeChildren);
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeLong(contentHash);
+            out.writeInt(wordLength);
+            out.writeInt(guesses.length);
+            out.writeInt(edgePatterns.length);
+            for (int node = 0; node < guesses.length; node++) {
+                out.writeInt(guesses[node]);
+                out.writeBoolean(solves[node]);
+            }
+            for (int offset : firstEdge) {
+                out.writeInt(offset);
+            }
+            for (int pattern : edgePatterns) {
+                out.writeShort(pattern);
+            }
+            for (int child : edgeChildren) {
+                out.writeInt(child);
+            }
+        }
+    }
+
+    // Дерево подходит только к словарю, для которого построено
+    public boolean matches(WordleDictionary dictionary) {
+        return contentHash == dictionary.getContentHash() && wordLength == dictionary.getWordLength()
+                && maxGuess < dictionary.size();
+    }
+
+    // Следующая догадка после сыгранных ходов или -1, если игра ушла с дерева
+    public int nextGuess(WordleDictionary dictionary, List<String> previousGuesses, List<String> previousHints) {
+        int node = 0;
+        for (int i = 0; i < previousGuesses.size(); i++) {
+            if (dictionary.indexOf(previousGuesses.get(i)) != guesses[node]) {
+                return -1;
+            }
+            node = child(node, WordleFeedback.fromHint(previousHints.get(i)));
+            if (node < 0) {
+                return -1;
+            }
+        }
+        return guesses[node];
+    }
+
+    // Дочерний узел по коду подсказки или -1
+    public int child(int node, int pattern) {
+        int edge = Arrays.binarySearch(edgePatterns, firstEdge[node], firstEdge[node + 1], pattern);
+        return edge >= 0 ? edgeChildren[edge] : -1;
+    }
+
+    public int getGuess(int node) {
+        return guesses[node];
+    }
+
+    public int getNodeCount() {
+        return guesses.length;
+    }
+
+    // Среднее число ходов до ответа по всем словам словаря
+    public double getAverageGuesses() {
+        return answerCount == 0 ? 0 : (double) totalGuesses / answerCount;
+    }
+
+    public long getTotalGuesses() {
+        return totalGuesses;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+}
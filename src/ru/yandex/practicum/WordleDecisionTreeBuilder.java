@@ -0,0 +1,283 @@
+package ru.yandex.practicum;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+построение дерева решений (догадка -> подсказка -> следующая догадка) для всего словаря
+    цена дерева - суммарное число ходов, за которое угадывается каждое слово словаря
+    в узле пробуются width лучших по энтропии догадок, глубже searchDepth - только лучшая (жадно)
+    ветви и границы: поддерево бросается, как только его цена с нижними оценками
+    оставшихся групп (n слов требуют не меньше 2n - 1 ходов) превышает лучшую найденную
+    крупные узлы верхних уровней оцениваются параллельно в ForkJoinPool с общей границей
+
+запуск: WordleDecisionTreeBuilder [файл словаря] [width] [searchDepth] - дерево пишется рядом со словарём
+ */
+public class WordleDecisionTreeBuilder {
+    public static final int DEFAULT_WIDTH = 5;
+    public static final int DEFAULT_SEARCH_DEPTH = 2;
+
+    // Узлы меньше этого размера считаются в одном потоке
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    private final WordleDictionary dictionary;
+    private final int width;
+    private final int searchDepth;
+    private final ForkJoinPool pool;
+    private final int patternCount;
+    private final int solvedPattern;
+
+    public WordleDecisionTreeBuilder(WordleDictionary dictionary) {
+        this(dictionary, DEFAULT_WIDTH, DEFAULT_SEARCH_DEPTH, ForkJoinPool.commonPool());
+    }
+
+    public WordleDecisionTreeBuilder(WordleDictionary dictionary, int width, int searchDepth, ForkJoinPool pool) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("Ширина поиска должна быть положительной");
+        }
+        this.dictionary = dictionary;
+        this.width = width;
+        this.searchDepth = searchDepth;
+        this.pool = pool;
+        this.patternCount = WordleFeedback.patternCount(dictionary.getWordLength());
+        this.solvedPattern = WordleFeedback.solvedPattern(dictionary.getWordLength());
+    }
+
+    public WordleDecisionTree build() {
+        dictionary.precomputePatterns();
+        // Дерево угадывает каждый ответ, а догадки в узлах берутся из всего словаря
+        int[] answers = new int[dictionary.getAnswerCount()];
+        for (int i = 0; i < answers.length; i++) {
+            answers[i] = i;
+        }
+        Node root = pool.invoke(new SolveTask(answers, 0, Integer.MAX_VALUE));
+        return WordleDecisionTree.of(dictionary, root);
+    }
+
+    // Узел дерева поиска: догадка, цена поддерева и поддеревья по кодам подсказок (по возрастанию)
+    static final class Node {
+        final int guess;
+        final int cost;
+        final boolean solves;
+        final int[] patterns;
+        final Node[] children;
+
+        Node(int guess, int cost, boolean solves, int[] patterns, Node[] children) {
+            this.guess = guess;
+            this.cost = cost;
+            this.solves = solves;
+            this.patterns = patterns;
+            this.children = children;
+        }
+    }
+
+    private static final int[] NO_PATTERNS = new int[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    // Меньше 2n - 1 ходов на n слов не бывает: угадать сразу можно только одно из них
+    private static int lowerBound(int size) {
+        return size == 1 ? 1 : 2 * size - 1;
+    }
+
+    private final class SolveTask extends RecursiveTask<Node> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] answers;
+        private final int depth;
+        private final int bound;
+
+        SolveTask(int[] answers, int depth, int bound) {
+            this.answers = answers;
+            this.depth = depth;
+            this.bound = bound;
+        }
+
+        @Override
+        protected Node compute() {
+            return solve(answers, depth, bound);
+        }
+    }
+
+    // Лучшее поддерево для набора ответов или null, если его цена больше bound
+    private Node solve(int[] answers, int depth, int bound) {
+        if (answers.length == 1) {
+            return new Node(answers[0], 1, true, NO_PATTERNS, NO_CHILDREN);
+        }
+        if (lowerBound(answers.length) > bound) {
+            return null;
+        }
+        if (answers.length == 2) {
+            // Называем первое слово; если не оно - второе
+            Node second = new Node(answers[1], 1, true, NO_PATTERNS, NO_CHILDREN);
+            return new Node(answers[0], 3, true,
+                    new int[] {dictionary.getPattern(answers[0], answers[1])}, new Node[] {second});
+        }
+
+        int[] guesses = rank(answers, depth < searchDepth ? width : 1);
+        if (guesses.length > 1 && answers.length >= PARALLEL_THRESHOLD) {
+            return solveParallel(answers, guesses, depth, bound);
+        }
+        Node best = null;
+        for (int guess : guesses) {
+            Node node = evaluate(guess, answers, depth, best == null ? bound : Math.min(bound, best.cost));
+            if (node != null && (best == null || node.cost < best.cost)) {
+                best = node;
+            }
+        }
+        return best;
+    }
+
+    // Догадки узла оцениваются параллельно; найденная цена сразу становится границей для остальных
+    private Node solveParallel(int[] answers, int[] guesses, int depth, int bound) {
+        AtomicInteger sharedBound = new AtomicInteger(bound);
+        List<RecursiveTask<Node>> tasks = new ArrayList<>(guesses.length);
+        for (int guess : guesses) {
+            tasks.add(new RecursiveTask<>() {
+                @Override
+                protected Node compute() {
+                    Node node = evaluate(guess, answers, depth, sharedBound.get());
+                    if (node != null) {
+                        sharedBound.accumulateAndGet(node.cost, Math::min);
+                    }
+                    return node;
+                }
+            });
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        // При равной цене выигрывает догадка с лучшим рангом - результат не зависит от порядка потоков
+        Node best = null;
+        for (RecursiveTask<Node> task : tasks) {
+            Node node = task.join();
+            if (node != null && (best == null || node.cost < best.cost)) {
+                best = node;
+            }
+        }
+        return best;
+    }
+
+    // Поддерево с заданной первой догадкой или null, если его цена больше bound
+    private Node evaluate(int guess, int[] answers, int depth, int bound) {
+        int[] counts = new int[patternCount];
+        dictionary.countPatterns(guess, answers, answers.length, counts);
+        boolean solves = counts[solvedPattern] > 0;
+        int groups = 0;
+        int cost = answers.length;
+        int remainingLower = 0;
+        for (int pattern = 0; pattern < patternCount; pattern++) {
+            if (counts[pattern] > 0 && pattern != solvedPattern) {
+                groups++;
+                remainingLower += lowerBound(counts[pattern]);
+            }
+        }
+        if (cost + remainingLower > bound) {
+            return null;
+        }
+
+        // Раскладываем ответы по группам одинаковых подсказок
+        int[][] buckets = new int[patternCount][];
+        for (int answer : answers) {
+            int pattern = dictionary.getPattern(guess, answer);
+            if (pattern == solvedPattern) {
+                continue;
+            }
+            if (buckets[pattern] == null) {
+                buckets[pattern] = new int[counts[pattern]];
+                counts[pattern] = 0;
+            }
+            buckets[pattern][counts[pattern]++] = answer;
+        }
+
+        int[] patterns = new int[groups];
+        Node[] children = new Node[groups];
+        int n = 0;
+        for (int pattern = 0; pattern < patternCount; pattern++) {
+            int[] bucket = buckets[pattern];
+            if (bucket == null) {
+                continue;
+            }
+            remainingLower -= lowerBound(bucket.length);
+            Node child = solve(bucket, depth + 1, bound - cost - remainingLower);
+            if (child == null) {
+                return null;
+            }
+            cost += child.cost;
+            patterns[n] = pattern;
+            children[n++] = child;
+        }
+        return new Node(guess, cost, solves, patterns, children);
+    }
+
+    // Лучшие по энтропии догадки для набора ответов; догадки, не делящие набор, пропускаются
+    private int[] rank(int[] answers, int limit) {
+        long[] isAnswer = new long[(dictionary.size() + 63) >>> 6];
+        for (int answer : answers) {
+            isAnswer[answer >>> 6] |= 1L << answer;
+        }
+        double[] weights = new double[answers.length + 1];
+        for (int c = 2; c < weights.length; c++) {
+            weights[c] = c * (Math.log(c) / Math.log(2));
+        }
+
+        int[] best = new int[limit];
+        double[] bestScores = new double[limit];
+        int found = 0;
+        int[] histogram = new int[patternCount];
+        for (int guess = 0; guess < dictionary.size(); guess++) {
+            boolean candidate = (isAnswer[guess >>> 6] & (1L << guess)) != 0;
+            dictionary.countPatterns(guess, answers, answers.length, histogram);
+            int largest = 0;
+            for (int count : histogram) {
+                largest = Math.max(largest, count);
+            }
+            if (largest == answers.length && !candidate) {
+                continue;
+            }
+            double score = 0;
+            for (int count : histogram) {
+                score += weights[count];
+            }
+            // Кандидаты в ответ при равной оценке идут раньше: они могут закончить игру сразу
+            if (candidate) {
+                score -= 1e-9;
+            }
+
+            // Вставка в короткий отсортированный список лучших
+            if (found == limit && score >= bestScores[found - 1]) {
+                continue;
+            }
+            int position = found == limit ? limit - 1 : found++;
+            while (position > 0 && bestScores[position - 1] > score) {
+                best[position] = best[position - 1];
+                bestScores[position] = bestScores[position - 1];
+                position--;
+            }
+            best[position] = guess;
+            bestScores[position] = score;
+        }
+        return Arrays.copyOf(best, found);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String filename = args.length > 0 ? args[0] : "words_ru.txt";
+        int width = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_WIDTH;
+        int searchDepth = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SEARCH_DEPTH;
+
+        WordleDictionary dictionary = new WordleDictionaryLoader().loadDictionaryCached(filename);
+        long start = System.nanoTime();
+        WordleDecisionTree tree = new WordleDecisionTreeBuilder(dictionary, width, searchDepth,
+                ForkJoinPool.commonPool()).build();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        tree.write(Paths.get(WordleDecisionTree.filename(filename, dictionary)));
+
+        System.out.printf("Дерево решений: %d узлов, в среднем %.3f хода, максимум %d, построено за %d мс%n",
+                tree.getNodeCount(), tree.getAverageGuesses(), tree.getMaxDepth(), millis);
+    }
+}
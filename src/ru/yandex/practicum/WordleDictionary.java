@@ -1,32 +1,148 @@
 package ru.yandex.practicum;
 
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
 
 /*
-этот класс содержит в себе список слов List<String>
+этот класс содержит в себе список слов
     его методы похожи на методы списка, но учитывают особенности игры
     также этот класс может содержать рутинные функции по сравнению слов, букв и т.д.
+
+слова хранятся упакованными в один long[] (6 бит на букву), строки создаются только на границе API
+
+слова делятся на два пула: загадываемые ответы и допустимые догадки
+    ответы лежат в начале массива (индексы 0..getAnswerCount()), за ними - слова, которые можно только называть
+    случайное слово, индекс кандидатов и столбцы таблицы подсказок берутся только из ответов,
+    а contains и строки таблицы (догадки) - из всего словаря
+    словарь из одного списка - частный случай, где ответами могут быть все слова
+
+словарь неизменяем и может использоваться из многих игр и потоков одновременно:
+    все поля final, индексы создаются один раз под блокировкой и публикуются через volatile
+    у словаря нет общего генератора случайных чисел - его передаёт игра или берётся ThreadLocalRandom
  */
-public class WordleDictionary {
+public final class WordleDictionary {
     // Константы
     public static final int WORD_LENGTH = 5;
-    private static final char EXACT_MATCH = '+';
-    private static final char PARTIAL_MATCH = '^';
-    private static final char NO_MATCH = '-';
+    public static final int MAX_ATTEMPTS = 6;
+
+    // Блоков по 64 кандидата в одном параллельном куске раскладки по подсказкам
+    private static final int PATTERN_CHUNK_BLOCKS = 256;
 
-    private final List<String> words;
-    private final Random random = new Random();
+    private final int wordLength;
+    private final int maxAttempts;
+    private final long[] packedWords;
+    private final int answerCount;
+    private final WordleWordIndex wordIndex;
+    private final long contentHash;
+    private volatile WordlePatternTable patternTable;
+    private volatile WordleCandidateIndex candidateIndex;
 
     public WordleDictionary(List<String> words) {
-        this.words = new ArrayList<>();
-        // Фильтруем только 5-буквенные слова при создании
+        this(words, WORD_LENGTH);
+    }
+
+    // Словарь для слов другой длины, например для режимов на 4, 6 или 7 букв
+    public WordleDictionary(List<String> words, int wordLength) {
+        this(packWords(words, wordLength), wordLength);
+    }
+
+    // Раздельные пулы: ответы загадываются, догадки только принимаются; ответы всегда допустимы как догадки
+    public WordleDictionary(List<String> answers, List<String> guesses, int wordLength) {
+        this(withGuesses(new WordleDictionary(answers, wordLength), new WordleDictionary(guesses, wordLength)));
+    }
+
+    private WordleDictionary(WordleDictionary pools) {
+        this(pools.packedWords, pools.answerCount, pools.wordLength, pools.wordIndex);
+    }
+
+    // Словарь поверх уже упакованных слов; массив больше не должен меняться снаружи
+    WordleDictionary(long[] packedWords, int wordLength) {
+        this(packedWords, wordLength, new WordleWordIndex(packedWords, packedWords.length));
+    }
+
+    // То же с готовым хеш-индексом, чтобы не строить его заново
+    WordleDictionary(long[] packedWords, int wordLength, WordleWordIndex wordIndex) {
+        this(packedWords, packedWords.length, wordLength, wordIndex);
+    }
+
+    // Первые answerCount слов - пул ответов, остальные - только догадки
+    WordleDictionary(long[] packedWords, int answerCount, int wordLength, WordleWordIndex wordIndex) {
+        if (wordLength <= 0 || wordLength > WordleAlphabet.MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Неподдерживаемая длина слова: " + wordLength);
+        }
+        if (answerCount < 0 || answerCount > packedWords.length) {
+            throw new IllegalArgumentException("Пул ответов больше словаря: " + answerCount);
+        }
+        this.wordLength = wordLength;
+        this.maxAttempts = defaultAttempts(wordLength);
+        this.packedWords = packedWords;
+        this.answerCount = answerCount;
+        long hash = 0xcbf29ce484222325L;
+        for (long word : packedWords) {
+            // FNV-1a по упакованным словам - отпечаток содержимого словаря
+            hash = (hash ^ word) * 0x100000001b3L;
+        }
+        if (answerCount != packedWords.length) {
+            // Граница пулов тоже часть содержимого; у словаря из одного списка хеш прежний
+            hash = (hash ^ answerCount) * 0x100000001b3L;
+        }
+        this.contentHash = hash;
+        this.wordIndex = wordIndex;
+    }
+
+    // Словарь из пула ответов и пула догадок той же длины: ответы идут первыми, повторы из догадок отбрасываются
+    static WordleDictionary withGuesses(WordleDictionary answers, WordleDictionary guesses) {
+        if (answers.wordLength != guesses.wordLength) {
+            throw new IllegalArgumentException("Пулы ответов и догадок для слов разной длины");
+        }
+        long[] words = Arrays.copyOf(answers.packedWords, answers.answerCount + guesses.packedWords.length);
+        WordleWordIndex index = new WordleWordIndex(words.length);
+        int size = 0;
+        for (int i = 0; i < answers.answerCount; i++) {
+            if (index.add(words[i], size)) {
+                words[size++] = words[i];
+            }
+        }
+        int answerCount = size;
+        for (long word : guesses.packedWords) {
+            if (index.add(word, size)) {
+                words[size++] = word;
+            }
+        }
+        return new WordleDictionary(size == words.length ? words : Arrays.copyOf(words, size), answerCount,
+                answers.wordLength, index);
+    }
+
+    // Фильтруем только слова нужной длины из поддерживаемого алфавита, повторы отбрасываем
+    private static long[] packWords(List<String> words, int wordLength) {
+        long[] packed = new long[words.size()];
+        WordleWordIndex seen = new WordleWordIndex(words.size());
+        int size = 0;
         for (String word : words) {
-            String normalized = normalizeWord(word);
-            if (normalized.length() == WORD_LENGTH) {
-                this.words.add(normalized);
+            long code = WordleAlphabet.pack(word, wordLength);
+            if (code != WordleAlphabet.INVALID && seen.add(code, size)) {
+                packed[size++] = code;
             }
         }
+        return Arrays.copyOf(packed, size);
+    }
+
+    // Число попыток: 6 для классических 5 букв, для остальных длин - на одну больше длины слова
+    public static int defaultAttempts(int wordLength) {
+        return wordLength == WORD_LENGTH ? MAX_ATTEMPTS : wordLength + 1;
+    }
+
+    public int getWordLength() {
+        return wordLength;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
     }
 
     public static String normalizeWord(String word) {
@@ -34,149 +150,295 @@ public class WordleDictionary {
         return word.trim().toLowerCase().replace('ё', 'е');
     }
 
+    // Неизменяемое представление словаря, строки распаковываются при обращении
     public List<String> getWords() {
-        return Collections.unmodifiableList(words);
+        return wordList(packedWords.length);
+    }
+
+    // Только пул ответов - начало списка getWords()
+    public List<String> getAnswers() {
+        return wordList(answerCount);
+    }
+
+    private List<String> wordList(int size) {
+        return new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                return getWord(Objects.checkIndex(index, size));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
     }
 
     public String getRandomWord() {
-        if (words.isEmpty()) {
+        return getRandomWord(ThreadLocalRandom.current());
+    }
+
+    // Случайный ответ из переданного генератора, например своего у каждой игры
+    public String getRandomWord(RandomGenerator random) {
+        if (answerCount == 0) {
             throw new IllegalStateException("Словарь пуст");
         }
-        return words.get(random.nextInt(words.size()));
+        return getWord(random.nextInt(answerCount));
+    }
+
+    // Размер всего словаря - всех допустимых догадок
+    public int size() {
+        return packedWords.length;
+    }
+
+    // Размер пула ответов; индексы ответов - 0..getAnswerCount()
+    public int getAnswerCount() {
+        return answerCount;
+    }
+
+    public boolean isAnswer(int index) {
+        return index >= 0 && index < answerCount;
+    }
+
+    // Может ли слово быть загаданным
+    public boolean containsAnswer(String word) {
+        return isAnswer(indexOf(word));
+    }
+
+    // Индекс слова в словаре или -1; нормализация идёт при упаковке, без новых строк
+    public int indexOf(String word) {
+        return wordIndex.indexOf(WordleAlphabet.pack(word, wordLength));
     }
 
+    public String getWord(int index) {
+        return WordleAlphabet.unpack(packedWords[index], wordLength);
+    }
+
+    WordleWordIndex getWordIndex() {
+        return wordIndex;
+    }
+
+    // Упакованное слово по индексу
+    public long getPackedWord(int index) {
+        return packedWords[index];
+    }
+
+    // Хеш содержимого словаря, по нему проверяются файлы кэша
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    // Проверка за O(1) по хеш-индексу
     public boolean contains(String word) {
-        String normalizedWord = normalizeWord(word);
-        return words.contains(normalizedWord);
+        return indexOf(word) >= 0;
     }
 
-    // Основной метод анализа слов
+    // Основной метод анализа слов: строка подсказки декодируется из кода
     public String analyzeWord(String guess, String answer) {
+        return WordleFeedback.toHint(analyzePattern(guess, answer), wordLength);
+    }
+
+    // Код подсказки; для слов словаря - чтение из таблицы, если она уже подключена
+    public int analyzePattern(String guess, String answer) {
+        int guessIndex = indexOf(guess);
+        int answerIndex = indexOf(answer);
+        if (guessIndex >= 0 && answerIndex >= 0) {
+            return getPattern(guessIndex, answerIndex);
+        }
+
         guess = normalizeWord(guess);
         answer = normalizeWord(answer);
+        if (guess.length() != wordLength || answer.length() != wordLength) {
+            throw new IllegalArgumentException("Слова должны содержать " + wordLength + " букв");
+        }
+        return WordleFeedback.score(guess, answer);
+    }
 
-        char[] result = new char[WORD_LENGTH];
-        Arrays.fill(result, NO_MATCH);
-
-        // Сначала обрабатываем зеленые (точные совпадения)
-        boolean[] answerUsed = new boolean[WORD_LENGTH];
-        boolean[] guessProcessed = new boolean[WORD_LENGTH];
+    // Код подсказки по индексам слов словаря; столбцы таблицы есть только у ответов
+    // Одиночный запрос таблицу не создаёт: без неё подсказка просто считается
+    public int getPattern(int guessIndex, int answerIndex) {
+        WordlePatternTable table = answerIndex < answerCount ? patternTable : null;
+        if (table != null) {
+            return table.get(guessIndex, answerIndex);
+        }
+        return WordleFeedback.score(packedWords[guessIndex], packedWords[answerIndex], wordLength);
+    }
 
-        for (int i = 0; i < WORD_LENGTH; i++) {
-            if (guess.charAt(i) == answer.charAt(i)) {
-                result[i] = EXACT_MATCH;
-                answerUsed[i] = true;
-                guessProcessed[i] = true;
+    // Пакетная оценка: коды подсказок догадки для ответов answers[0..count) в patterns; ответы - из пула ответов
+    public void scorePatterns(int guessIndex, int[] answers, int count, byte[] patterns) {
+        if (WordleFeedback.patternCount(wordLength) > 256) {
+            throw new IllegalArgumentException("Коды подсказок слов из " + wordLength + " букв не помещаются в байт");
+        }
+        WordlePatternTable table = patternTable;
+        if (table != null && table.isComplete()) {
+            for (int i = 0; i < count; i++) {
+                patterns[i] = (byte) table.get(guessIndex, answers[i]);
             }
+            return;
         }
+        new WordleBatchScorer(wordLength).setGuess(packedWords[guessIndex]).score(packedWords, answers, count, patterns);
+    }
 
-        // Затем обрабатываем желтые (есть, но не на месте)
-        for (int i = 0; i < WORD_LENGTH; i++) {
-            if (guessProcessed[i]) {
-                continue;
+    // Гистограмма подсказок догадки по ответам answers[0..count): histogram[p] - сколько ответов дают подсказку p
+    public void countPatterns(int guessIndex, int[] answers, int count, int[] histogram) {
+        Arrays.fill(histogram, 0);
+        WordlePatternTable table = patternTable;
+        if (table != null && table.isComplete()) {
+            for (int i = 0; i < count; i++) {
+                histogram[table.get(guessIndex, answers[i])]++;
             }
+            return;
+        }
+        new WordleBatchScorer(wordLength).setGuess(packedWords[guessIndex]).histogram(packedWords, answers, count,
+                histogram);
+    }
 
-            char currentChar = guess.charAt(i);
-
-            // Ищем эту букву в ответе на еще неиспользованных позициях
-            for (int j = 0; j < WORD_LENGTH; j++) {
-                if (!answerUsed[j] && answer.charAt(j) == currentChar) {
-                    result[i] = PARTIAL_MATCH;
-                    answerUsed[j] = true;
-                    break;
+    // Оставить в наборе только кандидатов, для которых догадка даёт подсказку pattern; возвращает их число
+    public int retainMatching(int guessIndex, int pattern, long[] candidates) {
+        WordlePatternTable table = patternTable;
+        boolean useTable = table != null && table.isComplete();
+        WordleBatchScorer scorer = useTable ? null : new WordleBatchScorer(wordLength).setGuess(packedWords[guessIndex]);
+        int count = 0;
+        for (int block = 0; block < candidates.length; block++) {
+            long kept = 0;
+            for (long bits = candidates[block]; bits != 0; bits &= bits - 1) {
+                int answer = (block << 6) + Long.numberOfTrailingZeros(bits);
+                int actual = useTable ? table.get(guessIndex, answer) : scorer.score(packedWords[answer]);
+                if (actual == pattern) {
+                    kept |= bits & -bits;
                 }
             }
+            candidates[block] = kept;
+            count += Long.bitCount(kept);
         }
-
-        return new String(result);
+        return count;
     }
 
-    // Фильтрация слов по текущим подсказкам
-    public List<String> filterWords(List<String> previousGuesses, List<String> previousHints) {
-        List<String> filteredWords = new ArrayList<>(words);
-
-        for (int i = 0; i < previousGuesses.size(); i++) {
-            String guess = normalizeWord(previousGuesses.get(i));
-            String hint = previousHints.get(i);
-
-            Iterator<String> iterator = filteredWords.iterator();
-            while (iterator.hasNext()) {
-                String word = iterator.next();
-                if (!matchesHint(word, guess, hint)) {
-                    iterator.remove();
-                }
+    // То же для набора кандидатов; большие наборы оцениваются кусками параллельно
+    public void countPatterns(int guessIndex, long[] candidates, int[] histogram) {
+        Arrays.fill(histogram, 0);
+        WordlePatternTable table = patternTable;
+        if (table != null && table.isComplete()) {
+            for (int i = WordleCandidateIndex.nextCandidate(candidates, 0); i >= 0;
+                 i = WordleCandidateIndex.nextCandidate(candidates, i + 1)) {
+                histogram[table.get(guessIndex, i)]++;
             }
+            return;
         }
 
-        return filteredWords;
+        long guess = packedWords[guessIndex];
+        int chunks = (candidates.length + PATTERN_CHUNK_BLOCKS - 1) / PATTERN_CHUNK_BLOCKS;
+        if (chunks <= 1) {
+            new WordleBatchScorer(wordLength).setGuess(guess).histogram(packedWords, candidates, 0,
+                    candidates.length, histogram);
+            return;
+        }
+        // У каждого куска свой оценщик и своя гистограмма
+        int[][] partial = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    int[] counts = new int[histogram.length];
+                    new WordleBatchScorer(wordLength).setGuess(guess).histogram(packedWords, candidates,
+                            chunk * PATTERN_CHUNK_BLOCKS,
+                            Math.min(candidates.length, (chunk + 1) * PATTERN_CHUNK_BLOCKS), counts);
+                    return counts;
+                })
+                .toArray(int[][]::new);
+        for (int[] counts : partial) {
+            for (int p = 0; p < counts.length; p++) {
+                histogram[p] += counts[p];
+            }
+        }
     }
 
-    private boolean matchesHint(String word, String guess, String hint) {
-        word = normalizeWord(word);
+    // Таблица подсказок уже создана (явным вызовом getPatternTable, precomputePatterns или usePatternCache)
+    public boolean hasPatternTable() {
+        return patternTable != null;
+    }
 
-        // Проверяем точные совпадения
-        for (int i = 0; i < WORD_LENGTH; i++) {
-            if (hint.charAt(i) == EXACT_MATCH) {
-                if (word.charAt(i) != guess.charAt(i)) {
-                    return false;
+    // Таблица подсказок "все догадки x ответы" создаётся при первом вызове этого метода - до 64 МБ на словарь,
+    // поэтому её заводят только те, кому нужны все пары (стратегии, построение дерева); null для слишком больших словарей
+    public WordlePatternTable getPatternTable() {
+        WordlePatternTable table = patternTable;
+        if (table == null && WordlePatternTable.supports(packedWords.length, answerCount, wordLength)) {
+            synchronized (this) {
+                table = patternTable;
+                if (table == null) {
+                    table = new WordlePatternTable(packedWords, packedWords.length, answerCount, wordLength);
+                    patternTable = table;
                 }
             }
         }
+        return table;
+    }
 
-        // Проверяем желтые совпадения (есть, но не на месте)
-        for (int i = 0; i < WORD_LENGTH; i++) {
-            if (hint.charAt(i) == PARTIAL_MATCH) {
-                char guessChar = guess.charAt(i);
-
-                // Не может быть на этой же позиции
-                if (word.charAt(i) == guessChar) {
-                    return false;
-                }
+    // Заранее посчитать всю таблицу подсказок
+    public void precomputePatterns() {
+        WordlePatternTable table = getPatternTable();
+        if (table != null) {
+            table.precompute();
+        }
+    }
 
-                // Должна быть где-то в слове
-                boolean found = false;
-                for (int j = 0; j < WORD_LENGTH; j++) {
-                    if (j != i && word.charAt(j) == guessChar) {
-                        found = true;
-                        break;
-                    }
-                }
-                if (!found) {
-                    return false;
-                }
-            }
+    // Подключить таблицу из файла кэша; если файла нет или он устарел - посчитать и записать заново
+    public void usePatternCache(String filename) throws IOException {
+        if (!WordlePatternTable.supports(packedWords.length, answerCount, wordLength)) {
+            return;
+        }
+        Path path = Paths.get(filename);
+        WordlePatternTable table = WordlePatternTable.map(path, packedWords, packedWords.length, answerCount,
+                wordLength, contentHash);
+        if (table == null) {
+            getPatternTable().writeTo(path, contentHash);
+            table = WordlePatternTable.map(path, packedWords, packedWords.length, answerCount, wordLength,
+                    contentHash);
         }
+        patternTable = table;
+    }
 
-        // Проверяем серые (отсутствующие буквы)
-        for (int i = 0; i < WORD_LENGTH; i++) {
-            if (hint.charAt(i) == NO_MATCH) {
-                char guessChar = guess.charAt(i);
+    // Фильтрация ответов по текущим подсказкам
+    public List<String> filterWords(List<String> previousGuesses, List<String> previousHints) {
+        long start = System.nanoTime();
+        long[] candidates = filterCandidates(previousGuesses, previousHints);
+        List<String> filteredWords = new ArrayList<>(WordleCandidateIndex.count(candidates));
+        for (int i = WordleCandidateIndex.nextCandidate(candidates, 0); i >= 0;
+             i = WordleCandidateIndex.nextCandidate(candidates, i + 1)) {
+            filteredWords.add(getWord(i));
+        }
+        WordleMetrics.global().recordFilter(System.nanoTime() - start);
+        return filteredWords;
+    }
 
-                // Считаем, сколько раз эта буква встречается в guess
-                // и сколько из них помечены как '+'
-                int exactMatchesInGuess = 0;
-                for (int j = 0; j < WORD_LENGTH; j++) {
-                    if (guess.charAt(j) == guessChar && hint.charAt(j) == EXACT_MATCH) {
-                        exactMatchesInGuess++;
-                    }
-                }
+    // То же в виде битового набора индексов ответов
+    public long[] filterCandidates(List<String> previousGuesses, List<String> previousHints) {
+        WordleCandidateIndex index = getCandidateIndex();
+        long[] candidates = index.all();
+        for (int i = 0; i < previousGuesses.size(); i++) {
+            index.apply(candidates, packGuess(previousGuesses.get(i)), WordleFeedback.fromHint(previousHints.get(i)));
+        }
+        return candidates;
+    }
 
-                // Считаем, сколько раз эта буква встречается в word
-                int countInWord = 0;
-                for (int j = 0; j < WORD_LENGTH; j++) {
-                    if (word.charAt(j) == guessChar) {
-                        countInWord++;
-                    }
-                }
+    // Упакованная догадка; слова вне алфавита словаря не могут давать подсказки
+    long packGuess(String guess) {
+        long packed = WordleAlphabet.pack(guess, wordLength);
+        if (packed == WordleAlphabet.INVALID) {
+            throw new IllegalArgumentException("Слово не подходит для словаря: " + guess);
+        }
+        return packed;
+    }
 
-                // В слове может быть только столько этих букв,
-                // сколько точных совпадений в guess
-                if (countInWord > exactMatchesInGuess) {
-                    return false;
+    // Битовый индекс по пулу ответов строится один раз на словарь
+    public WordleCandidateIndex getCandidateIndex() {
+        WordleCandidateIndex index = candidateIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = candidateIndex;
+                if (index == null) {
+                    index = new WordleCandidateIndex(packedWords, answerCount, wordLength);
+                    candidateIndex = index;
                 }
             }
         }
-
-        return true;
+        return index;
     }
-}
\ No newline at end of file
+}
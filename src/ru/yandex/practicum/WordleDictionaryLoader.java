@@ -1,36 +1,431 @@
 package ru.yandex.practicum;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
 
 /*
 этот класс содержит в себе всю рутину по работе с файлами словарей и с кодировками
     ему нужны методы по загрузке списка слов из файла по имени файла
     на выходе должен быть класс WordleDictionary
+
+кроме текстового формата есть скомпилированный двоичный:
+    заголовок (MAGIC, версия, длина слова, число слов, хеш словаря, флаги, CRC32 данных)
+    упакованные слова (long на слово) и, если стоит флаг, готовый хеш-индекс
+    такой файл читается одним блоком прямо в массивы, без разбора текста и повторной нормализации;
+    любой сбой разбора считается повреждением, и loadDictionaryCached пересобирает файл из текста
+
+большие текстовые списки режутся на куски по границам строк и разбираются параллельно,
+повторы слов отбрасываются при сборке итогового словаря
+
+по умолчанию загружаются слова из 5 букв, для других режимов длина передаётся явно;
+все длины сразу из одного файла собирает WordleDictionaryRegistry
+
+ответы и допустимые догадки можно загрузить из двух файлов: короткий список частых слов загадывается,
+а длинный только принимается как догадка; в скомпилированном файле граница пулов хранится с флагом
  */
 public class WordleDictionaryLoader {
+    public static final String COMPILED_SUFFIX = ".bin";
+
+    private static final int MAGIC = 0x57444331; // "WDC1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 4 + 8 + 4 + 4;
+    private static final int FLAG_WORD_INDEX = 1;
+    private static final int FLAG_ANSWER_POOL = 2;
+
+    // Файлы больше этого размера разбираются параллельно
+    public static final long PARALLEL_THRESHOLD = 8L * 1024 * 1024;
+    private static final long MIN_CHUNK_SIZE = 1024 * 1024;
 
     public WordleDictionary loadDictionary(String filename) throws IOException {
-        List<String> words = new ArrayList<>();
+        return loadDictionary(filename, WordleDictionary.WORD_LENGTH);
+    }
+
+    public WordleDictionary loadDictionary(String filename, int wordLength) throws IOException {
+        long start = System.nanoTime();
+        WordleDictionary dictionary = readDictionary(filename, wordLength);
+        WordleMetrics.global().recordDictionaryLoad(System.nanoTime() - start);
+        return dictionary;
+    }
+
+    public WordleDictionary loadDictionaryParallel(String filename) throws IOException {
+        return loadDictionaryParallel(filename, WordleDictionary.WORD_LENGTH);
+    }
+
+    public WordleDictionary loadDictionaryParallel(String filename, int wordLength) throws IOException {
+        long start = System.nanoTime();
+        WordleDictionary dictionary = readDictionaryParallel(filename, wordLength);
+        WordleMetrics.global().recordDictionaryLoad(System.nanoTime() - start);
+        return dictionary;
+    }
+
+    // Ответы из answersFilename, допустимые догадки - из обоих файлов
+    public WordleDictionary loadDictionary(String answersFilename, String guessesFilename) throws IOException {
+        return loadDictionary(answersFilename, guessesFilename, WordleDictionary.WORD_LENGTH);
+    }
+
+    public WordleDictionary loadDictionary(String answersFilename, String guessesFilename, int wordLength)
+            throws IOException {
+        long start = System.nanoTime();
+        WordleDictionary dictionary = WordleDictionary.withGuesses(readDictionary(answersFilename, wordLength),
+                readDictionary(guessesFilename, wordLength));
+        WordleMetrics.global().recordDictionaryLoad(System.nanoTime() - start);
+        return dictionary;
+    }
+
+    public WordleDictionary loadCompiledDictionary(String filename) throws IOException {
+        long start = System.nanoTime();
+        WordleDictionary dictionary = readCompiledDictionary(filename);
+        WordleMetrics.global().recordDictionaryLoad(System.nanoTime() - start);
+        return dictionary;
+    }
+
+    private WordleDictionary readDictionary(String filename, int wordLength) throws IOException {
+        if (isCompiled(Paths.get(filename))) {
+            WordleDictionary dictionary = readCompiledDictionary(filename);
+            if (dictionary.getWordLength() != wordLength) {
+                throw new IOException("Словарь собран для другой длины слова: " + filename);
+            }
+            return dictionary;
+        }
+
+        if (Files.isRegularFile(Paths.get(filename)) && Files.size(Paths.get(filename)) > PARALLEL_THRESHOLD) {
+            return readDictionaryParallel(filename, wordLength);
+        }
+
+        long[] words = new long[1024];
+        WordleWordIndex index = new WordleWordIndex(words.length);
+        int size = 0;
 
         try (BufferedReader reader = new BufferedReader(
                 new InputStreamReader(new FileInputStream(filename), StandardCharsets.UTF_8))) {
 
             String line;
             while ((line = reader.readLine()) != null) {
-                String normalizedWord = WordleDictionary.normalizeWord(line);
-                if (normalizedWord.length() == 5) {
-                    words.add(normalizedWord);
+                // Упаковка сразу нормализует слово и отсекает слова другой длины
+                long packed = WordleAlphabet.pack(line, wordLength);
+                if (packed == WordleAlphabet.INVALID) {
+                    continue;
+                }
+                if (size == words.length) {
+                    words = Arrays.copyOf(words, size * 2);
+                    index = new WordleWordIndex(words.length);
+                    for (int i = 0; i < size; i++) {
+                        index.add(words[i], i);
+                    }
+                }
+                if (index.add(packed, size)) {
+                    words[size++] = packed;
                 }
             }
         }
 
-        if (words.isEmpty()) {
-            throw new IOException("Словарь пуст или не содержит слов из 5 букв");
+        return createDictionary(words, size, wordLength, index);
+    }
+
+    // Все длины слов за один проход по файлу: каждая строка попадает в раздел своей длины
+    public WordleDictionaryRegistry loadRegistry(String filename) throws IOException {
+        long start = System.nanoTime();
+        WordleDictionaryRegistry registry = readRegistry(filename);
+        WordleMetrics.global().recordDictionaryLoad(System.nanoTime() - start);
+        return registry;
+    }
+
+    // Разделы ответов из answersFilename, каждый дополнен догадками своей длины из guessesFilename
+    public WordleDictionaryRegistry loadRegistry(String answersFilename, String guessesFilename) throws IOException {
+        long start = System.nanoTime();
+        WordleDictionaryRegistry registry = readRegistry(answersFilename).withGuesses(readRegistry(guessesFilename));
+        WordleMetrics.global().recordDictionaryLoad(System.nanoTime() - start);
+        return registry;
+    }
+
+    private WordleDictionaryRegistry readRegistry(String filename) throws IOException {
+        WordleDictionaryRegistry.Builder builder = new WordleDictionaryRegistry.Builder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(filename), StandardCharsets.UTF_8))) {
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                builder.add(line);
+            }
+        }
+        if (builder.isEmpty()) {
+            throw new IOException("Словарь пуст или не содержит подходящих слов");
+        }
+        return new WordleDictionaryRegistry(builder.build());
+    }
+
+    // Параллельная загрузка: файл отображается в память кусками, каждый кусок разбирается в своём потоке
+    private WordleDictionary readDictionaryParallel(String filename, int wordLength) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+            long[][] chunks;
+            try {
+                chunks = IntStream.range(0, bounds.length - 1)
+                        .parallel()
+                        .mapToObj(i -> parseChunk(channel, bounds[i], bounds[i + 1], wordLength))
+                        .toArray(long[][]::new);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            // Склейка в порядке кусков с отбрасыванием повторов
+            int total = 0;
+            for (long[] chunk : chunks) {
+                total += chunk.length;
+            }
+            long[] words = new long[total];
+            WordleWordIndex index = new WordleWordIndex(total);
+            int size = 0;
+            for (long[] chunk : chunks) {
+                for (long word : chunk) {
+                    if (index.add(word, size)) {
+                        words[size++] = word;
+                    }
+                }
+            }
+            return createDictionary(words, size, wordLength, index);
+        }
+    }
+
+    private WordleDictionary createDictionary(long[] words, int size, int wordLength, WordleWordIndex index)
+            throws IOException {
+        if (size == 0) {
+            throw new IOException("Словарь пуст или не содержит слов из " + wordLength + " букв");
         }
+        // Индекс уже построен при отбрасывании повторов, переиспользуем его
+        return new WordleDictionary(size == words.length ? words : Arrays.copyOf(words, size), wordLength, index);
+    }
 
-        return new WordleDictionary(words);
+    // Границы кусков: каждая граница сдвигается на начало следующей строки
+    private long[] chunkBounds(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        int parts = (int) Math.max(1, Math.min(fileSize / MIN_CHUNK_SIZE,
+                Runtime.getRuntime().availableProcessors() * 4L));
+        long[] bounds = new long[parts + 1];
+        ByteBuffer probe = ByteBuffer.allocate(256);
+        for (int i = 1; i < parts; i++) {
+            long position = Math.max(bounds[i - 1], fileSize * i / parts);
+            bounds[i] = nextLineStart(channel, position, probe);
+        }
+        bounds[parts] = fileSize;
+        return bounds;
+    }
+
+    private long nextLineStart(FileChannel channel, long position, ByteBuffer probe) throws IOException {
+        long fileSize = channel.size();
+        while (position < fileSize) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return fileSize;
+    }
+
+    // Разбор одного куска: декодирование UTF-8 и упаковка строк без создания String
+    private long[] parseChunk(FileChannel channel, long from, long to, int wordLength) {
+        if (from >= to) {
+            return new long[0];
+        }
+        CharBuffer text;
+        try {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            text = StandardCharsets.UTF_8.decode(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long[] words = new long[Math.max(16, text.length() / 8)];
+        int size = 0;
+        int lineStart = 0;
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            if (i == length || text.charAt(i) == '\n') {
+                long packed = WordleAlphabet.pack(text, lineStart, i, wordLength);
+                if (packed != WordleAlphabet.INVALID) {
+                    if (size == words.length) {
+                        words = Arrays.copyOf(words, size * 2);
+                    }
+                    words[size++] = packed;
+                }
+                lineStart = i + 1;
+            }
+        }
+        return Arrays.copyOf(words, size);
+    }
+
+    // Загрузка через скомпилированный файл рядом с текстовым; файл пересобирается, если текст новее
+    public WordleDictionary loadDictionaryCached(String filename) throws IOException {
+        return loadDictionaryCached(filename, WordleDictionary.WORD_LENGTH);
+    }
+
+    // Для каждой длины свой скомпилированный файл, чтобы режимы не перезаписывали кэш друг друга
+    public WordleDictionary loadDictionaryCached(String filename, int wordLength) throws IOException {
+        File source = new File(filename);
+        File compiled = new File(compiledFilename(filename, wordLength));
+        if (compiled.isFile() && compiled.lastModified() >= source.lastModified()) {
+            try {
+                WordleDictionary dictionary = loadCompiledDictionary(compiled.getPath());
+                if (dictionary.getWordLength() == wordLength) {
+                    return dictionary;
+                }
+            } catch (IOException e) {
+                // Повреждённый файл просто пересобираем
+            }
+        }
+
+        WordleDictionary dictionary = loadDictionary(filename, wordLength);
+        try {
+            writeCompiledDictionary(dictionary, compiled.getPath());
+        } catch (IOException e) {
+            // Без кэша словарь всё равно рабочий
+        }
+        return dictionary;
+    }
+
+    public static String compiledFilename(String filename, int wordLength) {
+        return wordLength == WordleDictionary.WORD_LENGTH
+                ? filename + COMPILED_SUFFIX
+                : filename + "." + wordLength + COMPILED_SUFFIX;
+    }
+
+    // Однократная компиляция текстового словаря в двоичный формат
+    public void compileDictionary(String textFilename, String binaryFilename) throws IOException {
+        writeCompiledDictionary(loadDictionary(textFilename), binaryFilename);
+    }
+
+    public void writeCompiledDictionary(WordleDictionary dictionary, String filename) throws IOException {
+        WordleWordIndex index = dictionary.getWordIndex();
+        int size = dictionary.size();
+        int capacity = index.capacity();
+        boolean answerPool = dictionary.getAnswerCount() != size;
+
+        ByteBuffer payload = ByteBuffer.allocate(size * 8 + 4 + capacity * 12 + (answerPool ? 4 : 0));
+        for (int i = 0; i < size; i++) {
+            payload.putLong(dictionary.getPackedWord(i));
+        }
+        payload.putInt(capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            payload.putLong(index.keyAt(slot));
+        }
+        for (int slot = 0; slot < capacity; slot++) {
+            payload.putInt(index.valueAt(slot));
+        }
+        if (answerPool) {
+            payload.putInt(dictionary.getAnswerCount());
+        }
+        payload.flip();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(dictionary.getWordLength())
+                .putInt(size)
+                .putLong(dictionary.getContentHash())
+                .putInt(FLAG_WORD_INDEX | (answerPool ? FLAG_ANSWER_POOL : 0))
+                .putInt((int) crc.getValue());
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (payload.hasRemaining()) {
+                channel.write(payload);
+            }
+        }
+    }
+
+    // Скомпилированный словарь читается целиком: данные всё равно копируются в массивы словаря
+    private WordleDictionary readCompiledDictionary(String filename) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(Paths.get(filename)));
+        if (buffer.remaining() < HEADER_SIZE) {
+            throw new IOException("Файл словаря повреждён: " + filename);
+        }
+        try {
+            return decodeCompiledDictionary(buffer, filename);
+        } catch (RuntimeException e) {
+            // Обрезанный или чужой файл с верной контрольной суммой - тоже повреждение
+            throw new IOException("Файл словаря повреждён: " + filename, e);
+        }
+    }
+
+    private WordleDictionary decodeCompiledDictionary(ByteBuffer buffer, String filename) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Неизвестный формат словаря: " + filename);
+        }
+        int wordLength = buffer.getInt();
+        if (wordLength <= 0 || wordLength > WordleAlphabet.MAX_WORD_LENGTH) {
+            throw new IOException("Файл словаря повреждён: " + filename);
+        }
+        int size = buffer.getInt();
+        long contentHash = buffer.getLong();
+        int flags = buffer.getInt();
+        int checksum = buffer.getInt();
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if ((int) crc.getValue() != checksum || size <= 0 || buffer.remaining() < size * 8L) {
+            throw new IOException("Файл словаря повреждён: " + filename);
+        }
+
+        long[] words = new long[size];
+        buffer.asLongBuffer().get(words);
+        buffer.position(buffer.position() + size * 8);
+
+        WordleWordIndex index;
+        if ((flags & FLAG_WORD_INDEX) != 0) {
+            int capacity = buffer.getInt();
+            if (capacity <= 0 || buffer.remaining() < capacity * 12L) {
+                throw new IOException("Файл словаря повреждён: " + filename);
+            }
+            long[] keys = new long[capacity];
+            int[] values = new int[capacity];
+            buffer.asLongBuffer().get(keys);
+            buffer.position(buffer.position() + capacity * 8);
+            buffer.asIntBuffer().get(values);
+            buffer.position(buffer.position() + capacity * 4);
+            index = new WordleWordIndex(keys, values);
+        } else {
+            index = new WordleWordIndex(words, size);
+        }
+        int answerCount = (flags & FLAG_ANSWER_POOL) != 0 ? buffer.getInt() : size;
+        if (answerCount <= 0 || answerCount > size) {
+            throw new IOException("Файл словаря повреждён: " + filename);
+        }
+        WordleDictionary dictionary = new WordleDictionary(words, answerCount, wordLength, index);
+
+        if (dictionary.getContentHash() != contentHash) {
+            throw new IOException("Файл словаря повреждён: " + filename);
+        }
+        return dictionary;
+    }
+
+    // Двоичный словарь узнаём по первым четырём байтам
+    private boolean isCompiled(Path path) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) < HEADER_SIZE) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            return in.readInt() == MAGIC;
+        }
     }
 }
@@ -0,0 +1,168 @@
+package ru.yandex.practicum;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/*
+менеджер словарей с горячей перезагрузкой
+    текущая версия словарей лежит в AtomicReference и читается без блокировок
+    фоновый поток следит за файлом через WatchService, после изменения собирает новые словари
+    вместе с индексами и только потом подменяет ссылку одной записью
+    начатые игры держат ссылку на свой словарь и доигрываются на нём, новые игры получают новую версию
+    если новый файл не читается или пуст, остаётся прежняя версия
+    при раздельных пулах следим за обоими файлами - изменение любого из них пересобирает словари
+ */
+public final class WordleDictionaryManager implements Supplier<WordleDictionaryRegistry>, AutoCloseable {
+    // Редактор может записывать файл в несколько приёмов - ждём, пока события утихнут
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    private final Path source;
+    // Файл пула ответов или null, если ответами служат все слова source
+    private final Path answers;
+    private final WordleDictionaryLoader loader;
+    private final AtomicReference<WordleDictionaryRegistry> current = new AtomicReference<>();
+    private final AtomicLong version = new AtomicLong();
+    private final Object reloadLock = new Object();
+    private volatile Exception lastFailure;
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    public WordleDictionaryManager(String filename) throws IOException {
+        this(filename, new WordleDictionaryLoader());
+    }
+
+    public WordleDictionaryManager(String filename, WordleDictionaryLoader loader) throws IOException {
+        this(filename, null, loader);
+    }
+
+    // Догадки из filename, ответы - из answersFilename (или из того же файла, если он не задан)
+    public WordleDictionaryManager(String filename, String answersFilename, WordleDictionaryLoader loader)
+            throws IOException {
+        this.source = Paths.get(filename).toAbsolutePath();
+        this.answers = answersFilename == null ? null : Paths.get(answersFilename).toAbsolutePath();
+        this.loader = loader;
+        current.set(build());
+        version.set(1);
+    }
+
+    // Текущая версия словарей всех длин
+    @Override
+    public WordleDictionaryRegistry get() {
+        return current.get();
+    }
+
+    public WordleDictionary getDictionary() {
+        return current.get().getDefault();
+    }
+
+    public WordleDictionary getDictionary(int wordLength) {
+        return current.get().get(wordLength);
+    }
+
+    // Номер версии, растёт при каждой успешной перезагрузке
+    public long getVersion() {
+        return version.get();
+    }
+
+    // Ошибка последней перезагрузки или null, если она прошла успешно
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    // Пересобрать словари сейчас; false, если файл не удалось прочитать и осталась старая версия
+    public boolean reload() {
+        synchronized (reloadLock) {
+            try {
+                current.set(build());
+                version.incrementAndGet();
+                lastFailure = null;
+                return true;
+            } catch (IOException | RuntimeException e) {
+                lastFailure = e;
+                return false;
+            }
+        }
+    }
+
+    // Индексы строятся до подмены, чтобы первые запросы к новой версии не ждали их создания
+    private WordleDictionaryRegistry build() throws IOException {
+        WordleDictionaryRegistry registry = answers == null
+                ? loader.loadRegistry(source.toString())
+                : loader.loadRegistry(answers.toString(), source.toString());
+        for (int length : registry.getWordLengths()) {
+            registry.get(length).getCandidateIndex();
+        }
+        registry.getDefault().precomputePatterns();
+        return registry;
+    }
+
+    // Начать следить за файлами словаря
+    public synchronized void watch() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+        watchService = source.getFileSystem().newWatchService();
+        source.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        if (answers != null && !answers.getParent().equals(source.getParent())) {
+            answers.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        }
+        watcherThread = new Thread(this::watchLoop, "wordle-dictionary-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW || isSource(key, event.context())) {
+                        changed = true;
+                    }
+                }
+                if (!key.reset()) {
+                    // Каталог со словарём удалён - следить больше не за чем
+                    return;
+                }
+                if (changed) {
+                    while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                        key.pollEvents();
+                        key.reset();
+                    }
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Менеджер закрыт
+        }
+    }
+
+    private boolean isSource(WatchKey key, Object context) {
+        if (!(context instanceof Path name) || !(key.watchable() instanceof Path directory)) {
+            return false;
+        }
+        Path changed = directory.resolve(name);
+        return changed.equals(source) || changed.equals(answers);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService == null) {
+            return;
+        }
+        watchService.close();
+        try {
+            watcherThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        watchService = null;
+    }
+}
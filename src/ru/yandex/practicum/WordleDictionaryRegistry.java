@@ -0,0 +1,168 @@
+package ru.yandex.practicum;
+
+import java.util.*;
+
+/*
+набор словарей разной длины слова, собранных из одного источника
+    источник читается один раз: каждая строка сразу упаковывается в раздел своей длины
+    у каждого раздела свои упакованные слова, хеш-индекс и ленивые таблицы подсказок,
+    поэтому игры на 4, 5, 6 или 7 букв обслуживаются одним процессом без повторной загрузки
+    игра берёт длину слова и число попыток из выбранного раздела
+    разделы из списка ответов можно дополнить допустимыми догадками той же длины из второго источника
+ */
+public final class WordleDictionaryRegistry {
+    private final WordleDictionary[] dictionaries = new WordleDictionary[WordleAlphabet.MAX_WORD_LENGTH + 1];
+    private final int defaultWordLength;
+
+    public WordleDictionaryRegistry(List<String> words) {
+        this(partition(words));
+    }
+
+    WordleDictionaryRegistry(Collection<WordleDictionary> dictionaries) {
+        int defaultLength = 0;
+        for (WordleDictionary dictionary : dictionaries) {
+            int length = dictionary.getWordLength();
+            if (this.dictionaries[length] != null) {
+                throw new IllegalArgumentException("Повторный словарь для слов из " + length + " букв");
+            }
+            this.dictionaries[length] = dictionary;
+            if (defaultLength == 0 || length == WordleDictionary.WORD_LENGTH) {
+                defaultLength = length;
+            }
+        }
+        if (defaultLength == 0) {
+            throw new IllegalArgumentException("Нет ни одного словаря");
+        }
+        this.defaultWordLength = defaultLength;
+    }
+
+    public static WordleDictionaryRegistry of(WordleDictionary... dictionaries) {
+        return new WordleDictionaryRegistry(Arrays.asList(dictionaries));
+    }
+
+    private static List<WordleDictionary> partition(List<String> words) {
+        Builder builder = new Builder();
+        for (String word : words) {
+            builder.add(word);
+        }
+        return builder.build();
+    }
+
+    // Разделы этого набора - пулы ответов, догадки той же длины добавляются из guesses;
+    // длины, для которых нет ответов, не загадываются и в итоговый набор не попадают
+    public WordleDictionaryRegistry withGuesses(WordleDictionaryRegistry guesses) {
+        List<WordleDictionary> result = new ArrayList<>();
+        for (int length : getWordLengths()) {
+            WordleDictionary answers = dictionaries[length];
+            result.add(guesses.supports(length) ? WordleDictionary.withGuesses(answers, guesses.get(length)) : answers);
+        }
+        return new WordleDictionaryRegistry(result);
+    }
+
+    public WordleDictionary get(int wordLength) {
+        WordleDictionary dictionary = find(wordLength);
+        if (dictionary == null) {
+            throw new IllegalArgumentException("Нет словаря для слов из " + wordLength + " букв");
+        }
+        return dictionary;
+    }
+
+    public boolean supports(int wordLength) {
+        return find(wordLength) != null;
+    }
+
+    private WordleDictionary find(int wordLength) {
+        return wordLength > 0 && wordLength < dictionaries.length ? dictionaries[wordLength] : null;
+    }
+
+    // Классические 5 букв, если они есть, иначе самая короткая из доступных длин
+    public WordleDictionary getDefault() {
+        return dictionaries[defaultWordLength];
+    }
+
+    public List<Integer> getWordLengths() {
+        List<Integer> lengths = new ArrayList<>();
+        for (int length = 1; length < dictionaries.length; length++) {
+            if (dictionaries[length] != null) {
+                lengths.add(length);
+            }
+        }
+        return lengths;
+    }
+
+    public WordleGame newGame(int wordLength) {
+        return new WordleGame(get(wordLength));
+    }
+
+    /*
+    разбор источника за один проход: строка нормализуется и упаковывается в раздел своей длины,
+    повторы внутри раздела отбрасываются по хеш-индексу, который потом достаётся словарю
+     */
+    static final class Builder {
+        private final long[][] words = new long[WordleAlphabet.MAX_WORD_LENGTH + 1][];
+        private final WordleWordIndex[] indexes = new WordleWordIndex[WordleAlphabet.MAX_WORD_LENGTH + 1];
+        private final int[] sizes = new int[WordleAlphabet.MAX_WORD_LENGTH + 1];
+
+        void add(CharSequence line) {
+            add(line, 0, line.length());
+        }
+
+        void add(CharSequence text, int from, int to) {
+            int start = from;
+            int end = to;
+            while (start < end && text.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && text.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            int length = end - start;
+            if (length == 0 || length > WordleAlphabet.MAX_WORD_LENGTH) {
+                return;
+            }
+            long packed = WordleAlphabet.pack(text, start, end, length);
+            if (packed == WordleAlphabet.INVALID) {
+                return;
+            }
+
+            if (words[length] == null) {
+                words[length] = new long[256];
+                indexes[length] = new WordleWordIndex(words[length].length);
+            }
+            int size = sizes[length];
+            if (size == words[length].length) {
+                words[length] = Arrays.copyOf(words[length], size * 2);
+                WordleWordIndex index = new WordleWordIndex(words[length].length);
+                for (int i = 0; i < size; i++) {
+                    index.add(words[length][i], i);
+                }
+                indexes[length] = index;
+            }
+            if (indexes[length].add(packed, size)) {
+                words[length][size] = packed;
+                sizes[length] = size + 1;
+            }
+        }
+
+        boolean isEmpty() {
+            for (int size : sizes) {
+                if (size > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        List<WordleDictionary> build() {
+            List<WordleDictionary> result = new ArrayList<>();
+            for (int length = 1; length < words.length; length++) {
+                int size = sizes[length];
+                if (size > 0) {
+                    long[] packed = size == words[length].length ? words[length] : Arrays.copyOf(words[length], size);
+                    result.add(new WordleDictionary(packed, length, indexes[length]));
+                }
+            }
+            return result;
+        }
+    }
+}
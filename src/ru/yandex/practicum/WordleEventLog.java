@@ -0,0 +1,232 @@
+package ru.yandex.practicum;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+асинхронный журнал игровых событий
+    игровой поток только кладёт запись в ограниченный кольцевой буфер без блокировок и сразу возвращается
+    фоновый поток забирает записи пачками, форматирует их и пишет в файл
+    сброс на диск - когда набралась пачка или прошёл интервал, а не после каждой строки
+    если буфер полон, запись отбрасывается и учитывается в счётчике, игра при этом не ждёт
+    пустой буфер фоновый поток не опрашивает: он засыпает, и его будит первая опубликованная запись
+    признак закрытия хранится в том же счётчике, что и номера записей, поэтому запись, занявшая ячейку
+    до close(), обязательно попадёт в файл, а после close() ячейку занять уже нельзя
+формат строки: время, уровень, событие и поля ключ=значение через табуляцию
+ */
+public final class WordleEventLog implements AutoCloseable {
+    public enum Level {
+        INFO,
+        WARN,
+        ERROR
+    }
+
+    public static final int DEFAULT_CAPACITY = 4096;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 200;
+
+    // Бит закрытия в tail: после него новые записи не принимаются
+    private static final long CLOSED = 1L << 62;
+
+    // Ячейка кольцевого буфера переиспользуется, чтобы запись не создавала объектов сверх полей
+    private static final class Slot {
+        long timestamp;
+        Level level;
+        String event;
+        Object[] fields;
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    // published[i] - номер записи, опубликованной в ячейке i
+    private final AtomicLongArray published;
+    // Номер следующей записи и бит CLOSED
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    // Фоновый поток собирается заснуть или спит; публикующий поток его будит
+    private volatile boolean idle;
+    private final LongAdder dropped = new LongAdder();
+
+    private final Writer writer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Thread writerThread;
+    // Сбрасывается, если фоновый поток остановился из-за ошибки записи
+    private volatile boolean running = true;
+
+    public WordleEventLog(String filename) throws IOException {
+        this(filename, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    public WordleEventLog(String filename, int capacity, int batchSize, long flushIntervalMillis)
+            throws IOException {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Размер буфера должен быть степенью двойки: " + capacity);
+        }
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = flushIntervalMillis * 1_000_000L;
+        this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filename),
+                StandardCharsets.UTF_8), 64 * 1024);
+
+        this.writerThread = new Thread(this::drainLoop, "wordle-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public boolean info(String event, Object... fields) {
+        return log(Level.INFO, event, fields);
+    }
+
+    public boolean warn(String event, Object... fields) {
+        return log(Level.WARN, event, fields);
+    }
+
+    public boolean error(String event, Object... fields) {
+        return log(Level.ERROR, event, fields);
+    }
+
+    // Поля передаются парами ключ, значение; строка собирается уже в фоновом потоке
+    public boolean log(Level level, String event, Object... fields) {
+        if (!running) {
+            return false;
+        }
+        long sequence;
+        do {
+            sequence = tail.get();
+            if ((sequence & CLOSED) != 0) {
+                return false;
+            }
+            if (sequence - head >= slots.length) {
+                dropped.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) sequence & mask;
+        Slot slot = slots[index];
+        slot.timestamp = System.currentTimeMillis();
+        slot.level = level;
+        slot.event = event;
+        slot.fields = fields;
+        // Полная запись, а не lazySet: фоновый поток проверяет ячейку после того, как выставил idle
+        published.set(index, sequence);
+        if (idle) {
+            LockSupport.unpark(writerThread);
+        }
+        return true;
+    }
+
+    // Сколько записей отброшено из-за переполнения буфера
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void drainLoop() {
+        StringBuilder line = new StringBuilder(128);
+        int pending = 0;
+        long lastFlush = System.nanoTime();
+        try {
+            while (true) {
+                int drained = drain(line);
+                pending += drained;
+                long now = System.nanoTime();
+                if (pending >= batchSize || (pending > 0 && now - lastFlush >= flushIntervalNanos)) {
+                    writer.flush();
+                    pending = 0;
+                    lastFlush = now;
+                }
+                if (drained > 0) {
+                    continue;
+                }
+                if (isDrainedAfterClose()) {
+                    break;
+                }
+                // idle выставляется до повторной проверки: запись, опубликованная после неё, разбудит поток
+                idle = true;
+                if (!isPublished(head) && !isDrainedAfterClose()) {
+                    // Недописанную пачку сбрасываем по интервалу, иначе спим до новой записи или close()
+                    if (pending > 0) {
+                        LockSupport.parkNanos(this, flushIntervalNanos - (now - lastFlush));
+                    } else {
+                        LockSupport.park(this);
+                    }
+                }
+                idle = false;
+            }
+            writer.flush();
+        } catch (IOException e) {
+            running = false;
+            System.err.println("Ошибка записи журнала: " + e.getMessage());
+        }
+    }
+
+    // Журнал закрыт и все записи, занявшие ячейку до закрытия, уже дописаны
+    private boolean isDrainedAfterClose() {
+        long end = tail.get();
+        return (end & CLOSED) != 0 && head == (end & ~CLOSED);
+    }
+
+    private boolean isPublished(long sequence) {
+        return published.get((int) sequence & mask) == sequence;
+    }
+
+    // Забирает не больше batchSize опубликованных записей
+    private int drain(StringBuilder line) throws IOException {
+        int drained = 0;
+        long sequence = head;
+        while (drained < batchSize) {
+            int index = (int) sequence & mask;
+            if (published.get(index) != sequence) {
+                break;
+            }
+            Slot slot = slots[index];
+            format(slot, line);
+            writer.append(line);
+            slot.fields = null;
+            slot.event = null;
+            sequence++;
+            head = sequence;
+            drained++;
+        }
+        return drained;
+    }
+
+    private void format(Slot slot, StringBuilder line) {
+        line.setLength(0);
+        line.append(Instant.ofEpochMilli(slot.timestamp)).append('\t')
+                .append(slot.level).append('\t')
+                .append(slot.event);
+        Object[] fields = slot.fields;
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            line.append('\t').append(fields[i]).append('=').append(fields[i + 1]);
+        }
+        line.append(System.lineSeparator());
+    }
+
+    // Остановка с дописыванием всего, что уже попало в буфер
+    @Override
+    public void close() throws IOException {
+        tail.getAndUpdate(sequence -> sequence | CLOSED);
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer.close();
+    }
+}
@@ -0,0 +1,155 @@
+package ru.yandex.practicum;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+кодирование подсказок целым числом в троичной системе
+    позиция i даёт разряд с весом 3^i: 0 - буквы нет, 1 - есть на другой позиции, 2 - на своём месте
+    для слов из 5 букв код лежит в диапазоне 0..242 и помещается в один байт
+    строковое представление подсказки ("+^-^-") строится один раз и дальше берётся из кэша
+ */
+public final class WordleFeedback {
+    public static final char EXACT_MATCH = '+';
+    public static final char PARTIAL_MATCH = '^';
+    public static final char NO_MATCH = '-';
+
+    public static final int NO = 0;
+    public static final int PARTIAL = 1;
+    public static final int EXACT = 2;
+
+    private static final AtomicReferenceArray<String[]> HINTS =
+            new AtomicReferenceArray<>(WordleAlphabet.MAX_WORD_LENGTH + 1);
+
+    private WordleFeedback() {
+    }
+
+    // Количество различных подсказок для слов заданной длины
+    public static int patternCount(int length) {
+        int count = 1;
+        for (int i = 0; i < length; i++) {
+            count *= 3;
+        }
+        return count;
+    }
+
+    // Код подсказки "все буквы на своих местах"
+    public static int solvedPattern(int length) {
+        return patternCount(length) - 1;
+    }
+
+    // Разряд подсказки на позиции position
+    public static int digitAt(int pattern, int position) {
+        for (int i = 0; i < position; i++) {
+            pattern /= 3;
+        }
+        return pattern % 3;
+    }
+
+    // Оценка упакованной догадки относительно упакованного ответа
+    public static int score(long guess, long answer, int length) {
+        int exact = 0;
+        long diff = guess ^ answer;
+        for (int i = 0; i < length; i++) {
+            if ((diff >>> (i * WordleAlphabet.BITS) & WordleAlphabet.MASK) == 0) {
+                exact |= 1 << i;
+            }
+        }
+
+        // Сначала зеленые занимают свои позиции, затем желтые ищут свободные буквы ответа
+        int used = exact;
+        int pattern = 0;
+        int weight = 1;
+        for (int i = 0; i < length; i++) {
+            if ((exact & (1 << i)) != 0) {
+                pattern += EXACT * weight;
+            } else {
+                int letter = WordleAlphabet.letterAt(guess, i);
+                for (int j = 0; j < length; j++) {
+                    if ((used & (1 << j)) == 0 && WordleAlphabet.letterAt(answer, j) == letter) {
+                        used |= 1 << j;
+                        pattern += PARTIAL * weight;
+                        break;
+                    }
+                }
+            }
+            weight *= 3;
+        }
+        return pattern;
+    }
+
+    // Та же оценка для уже нормализованных строк одинаковой длины
+    public static int score(String guess, String answer) {
+        int length = guess.length();
+        int exact = 0;
+        for (int i = 0; i < length; i++) {
+            if (guess.charAt(i) == answer.charAt(i)) {
+                exact |= 1 << i;
+            }
+        }
+
+        int used = exact;
+        int pattern = 0;
+        int weight = 1;
+        for (int i = 0; i < length; i++) {
+            if ((exact & (1 << i)) != 0) {
+                pattern += EXACT * weight;
+            } else {
+                char letter = guess.charAt(i);
+                for (int j = 0; j < length; j++) {
+                    if ((used & (1 << j)) == 0 && answer.charAt(j) == letter) {
+                        used |= 1 << j;
+                        pattern += PARTIAL * weight;
+                        break;
+                    }
+                }
+            }
+            weight *= 3;
+        }
+        return pattern;
+    }
+
+    // Строка подсказки по коду; строки кэшируются, поэтому вызов не создаёт объектов
+    public static String toHint(int pattern, int length) {
+        if (length > WordleAlphabet.MAX_WORD_LENGTH) {
+            return buildHint(pattern, length);
+        }
+        String[] hints = HINTS.get(length);
+        if (hints == null) {
+            hints = new String[patternCount(length)];
+            for (int i = 0; i < hints.length; i++) {
+                hints[i] = buildHint(i, length);
+            }
+            HINTS.compareAndSet(length, null, hints);
+            hints = HINTS.get(length);
+        }
+        return hints[pattern];
+    }
+
+    // Обратное преобразование строки подсказки в код
+    public static int fromHint(String hint) {
+        int pattern = 0;
+        int weight = 1;
+        for (int i = 0; i < hint.length(); i++) {
+            char c = hint.charAt(i);
+            if (c == EXACT_MATCH) {
+                pattern += EXACT * weight;
+            } else if (c == PARTIAL_MATCH) {
+                pattern += PARTIAL * weight;
+            } else if (c != NO_MATCH) {
+                throw new IllegalArgumentException("Некорректная подсказка: " + hint);
+            }
+            weight *= 3;
+        }
+        return pattern;
+    }
+
+    private static String buildHint(int pattern, int length) {
+        char[] result = new char[length];
+        for (int i = 0; i < length; i++) {
+            int digit = pattern % 3;
+            result[i] = digit == EXACT ? EXACT_MATCH : digit == PARTIAL ? PARTIAL_MATCH : NO_MATCH;
+            pattern /= 3;
+        }
+        return new String(result);
+    }
+}
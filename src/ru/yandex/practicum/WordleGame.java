@@ -2,7 +2,9 @@ package ru.yandex.practicum;
 
 import ru.yandex.practicum.exception.*;
 
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /*
 в этом классе хранится словарь и состояние игры
@@ -15,25 +17,72 @@ import java.util.*;
     предложат слово-подсказку с учётом всего, что вводил пользователь ранее
 
 не забудьте про специальные типы исключений для игровых и неигровых ошибок
+
+в сложном режиме каждая догадка должна учитывать все открытые подсказки;
+сводка ограничений (WordleHardModeConstraints) обновляется после каждого хода,
+поэтому проверка догадки не зависит от длины истории
+
+в режиме противника (Absurdle) ответ заранее не выбирается: после каждой догадки кандидаты
+раскладываются по подсказкам и остаётся самая большая группа; ответ фиксируется только в конце игры
  */
 public class WordleGame {
-    private final String answer;
+    // В режиме противника null, пока игра не закончена
+    private String answer;
+    private final boolean adversarial;
     private int remainingSteps;
     private final WordleDictionary dictionary;
     private final List<String> previousGuesses = new ArrayList<>();
     private final List<String> previousHints = new ArrayList<>();
     private boolean gameFinished = false;
+    // Живой набор слов, ещё совместимых со всеми подсказками
+    private final long[] candidates;
+    private int candidateCount;
+    // Стратегия автохода; без неё подсказка - случайный кандидат
+    private GuessStrategy guessStrategy;
+    // Свой генератор у каждой игры: без общей блокировки и с возможностью повторить игру по seed
+    private final RandomGenerator random;
+    private final WordleHardModeConstraints constraints;
+    private boolean hardMode = false;
 
     public WordleGame(WordleDictionary dictionary) {
-        this.dictionary = dictionary;
-        this.answer = dictionary.getRandomWord();
-        this.remainingSteps = 6;
+        this(dictionary, new SplittableRandom());
+    }
+
+    // Игра, полностью определяемая seed: и ответ, и случайные подсказки
+    public WordleGame(WordleDictionary dictionary, long seed) {
+        this(dictionary, new SplittableRandom(seed));
+    }
+
+    private WordleGame(WordleDictionary dictionary, RandomGenerator random) {
+        this(dictionary, dictionary.getRandomWord(random), random);
     }
 
     public WordleGame(WordleDictionary dictionary, String answer) {
+        this(dictionary, answer, new SplittableRandom());
+    }
+
+    public WordleGame(WordleDictionary dictionary, String answer, RandomGenerator random) {
+        this(dictionary, requireAnswer(dictionary, answer), random, false);
+    }
+
+    // Загадать можно только слово из пула ответов: остальные слова никогда не станут кандидатами
+    private static String requireAnswer(WordleDictionary dictionary, String answer) {
+        String normalizedAnswer = WordleDictionary.normalizeWord(answer);
+        if (!dictionary.containsAnswer(normalizedAnswer)) {
+            throw new WordNotFoundInDictionaryException("Слово не может быть ответом: " + normalizedAnswer);
+        }
+        return normalizedAnswer;
+    }
+
+    private WordleGame(WordleDictionary dictionary, String answer, RandomGenerator random, boolean adversarial) {
         this.dictionary = dictionary;
-        this.answer = WordleDictionary.normalizeWord(answer);
-        this.remainingSteps = 6;
+        this.random = random;
+        this.answer = answer;
+        this.adversarial = adversarial;
+        this.remainingSteps = dictionary.getMaxAttempts();
+        this.candidates = dictionary.getCandidateIndex().all();
+        this.candidateCount = dictionary.getAnswerCount();
+        this.constraints = new WordleHardModeConstraints(dictionary.getWordLength());
     }
 
     public String makeGuess(String guess) {
@@ -48,41 +97,197 @@ public class WordleGame {
         String normalizedGuess = WordleDictionary.normalizeWord(guess);
 
         // Проверка ввода
-        if (normalizedGuess.length() != 5) {
-            throw new InvalidWordLengthException("Слово должно содержать 5 букв");
+        if (normalizedGuess.length() != dictionary.getWordLength()) {
+            throw new InvalidWordLengthException("Слово должно содержать " + dictionary.getWordLength() + " букв");
         }
 
         if (!dictionary.contains(normalizedGuess)) {
             throw new WordNotFoundInDictionaryException("Слово не найдено в словаре");
         }
 
+        if (hardMode) {
+            constraints.check(dictionary.packGuess(normalizedGuess));
+        }
+
         // Анализ слова
-        String hint = dictionary.analyzeWord(normalizedGuess, answer);
+        long start = System.nanoTime();
+        int pattern = answer == null
+                ? adversarialPattern(dictionary.indexOf(normalizedGuess))
+                : dictionary.analyzePattern(normalizedGuess, answer);
+        String hint = recordMove(normalizedGuess, pattern);
+
+        WordleMetrics metrics = WordleMetrics.global();
+        metrics.recordGuess(System.nanoTime() - start, candidateCount);
+        if (gameFinished) {
+            metrics.recordGameFinished(isWon());
+        }
+        return hint;
+    }
+
+    // Запись хода с уже известной подсказкой: история, кандидаты, попытки и конец игры
+    private String recordMove(String normalizedGuess, int pattern) {
+        String hint = WordleFeedback.toHint(pattern, dictionary.getWordLength());
+        narrowCandidates(normalizedGuess, pattern);
+        constraints.update(dictionary.packGuess(normalizedGuess), pattern);
 
         previousGuesses.add(normalizedGuess);
         previousHints.add(hint);
         remainingSteps--;
 
         // Проверка на победу
-        if (normalizedGuess.equals(answer)) {
+        if (pattern == WordleFeedback.solvedPattern(dictionary.getWordLength())) {
             gameFinished = true;
         } else if (remainingSteps == 0) {
             gameFinished = true;
         }
 
+        // Противник раскрывает ответ только в конце: угаданное слово или любого из оставшихся кандидатов
+        if (gameFinished && answer == null) {
+            answer = pattern == WordleFeedback.solvedPattern(dictionary.getWordLength())
+                    ? normalizedGuess
+                    : dictionary.getWord(WordleCandidateIndex.nextCandidate(candidates, 0));
+        }
+
         return hint;
     }
 
+    // Игра против противника, который откладывает выбор ответа (Absurdle)
+    public static WordleGame adversarial(WordleDictionary dictionary) {
+        return new WordleGame(dictionary, null, new SplittableRandom(), true);
+    }
+
+    public boolean isAdversarial() {
+        return adversarial;
+    }
+
+    // Подсказка противника - самая большая группа кандидатов;
+    // при равенстве групп - меньший код (меньше совпадений), поэтому "угадано" выбирается последним
+    private int adversarialPattern(int guessIndex) {
+        int[] histogram = new int[WordleFeedback.patternCount(dictionary.getWordLength())];
+        dictionary.countPatterns(guessIndex, candidates, histogram);
+        int best = 0;
+        for (int pattern = 1; pattern < histogram.length; pattern++) {
+            if (histogram[pattern] > histogram[best]) {
+                best = pattern;
+            }
+        }
+        return best;
+    }
+
+    // Снимок состояния в несколько байт, см. WordleGameSnapshot
+    public byte[] snapshot() {
+        return WordleGameSnapshot.encode(this);
+    }
+
+    // Восстановление игры из снимка на любом узле с тем же словарём
+    public static WordleGame restore(WordleDictionary dictionary, byte[] snapshot) {
+        return WordleGameSnapshot.decode(dictionary, ByteBuffer.wrap(snapshot));
+    }
+
+    // Повтор хода из снимка без повторной проверки ввода
+    void replayMove(int guessIndex, int pattern) {
+        if (gameFinished) {
+            throw new IllegalArgumentException("Снимок содержит ходы после конца игры");
+        }
+        recordMove(dictionary.getWord(guessIndex), pattern);
+    }
+
+    // Сужение набора кандидатов по новой подсказке
+    private void narrowCandidates(String guess, int pattern) {
+        if (candidateCount * 4 > dictionary.getAnswerCount()) {
+            // Кандидатов ещё много - дешевле пройтись по битовому индексу
+            dictionary.getCandidateIndex().apply(candidates, dictionary.packGuess(guess), pattern);
+            candidateCount = WordleCandidateIndex.count(candidates);
+            return;
+        }
+
+        // Иначе пакетно оцениваем догадку против выживших кандидатов
+        candidateCount = dictionary.retainMatching(dictionary.indexOf(guess), pattern, candidates);
+    }
+
     public String getHint() {
-        List<String> possibleWords = dictionary.filterWords(previousGuesses, previousHints);
+        long start = System.nanoTime();
+        String hint = chooseHint();
+        WordleMetrics.global().recordHint(System.nanoTime() - start);
+        return hint;
+    }
 
-        if (possibleWords.isEmpty()) {
+    private String chooseHint() {
+        if (candidateCount == 0) {
             return "Нет подходящих слов в словаре";
         }
 
+        if (guessStrategy != null) {
+            int guess = guessStrategy.chooseGuess(this);
+            if (guess < 0) {
+                return "Нет подходящих слов в словаре";
+            }
+            // В сложном режиме допустимы только кандидаты; ход стратегии, не учитывающей режим, заменяем
+            if (!hardMode || isCandidate(guess)) {
+                return dictionary.getWord(guess);
+            }
+        }
+
         // Выбираем слово из подходящих
-        Random random = new Random();
-        return possibleWords.get(random.nextInt(possibleWords.size()));
+        return dictionary.getWord(WordleCandidateIndex.nthCandidate(candidates, random.nextInt(candidateCount)));
+    }
+
+    // Сложный режим можно включить и посреди игры: сводка ограничений ведётся всегда
+    public void setHardMode(boolean hardMode) {
+        this.hardMode = hardMode;
+    }
+
+    public boolean isHardMode() {
+        return hardMode;
+    }
+
+    public void setGuessStrategy(GuessStrategy guessStrategy) {
+        this.guessStrategy = guessStrategy;
+    }
+
+    public GuessStrategy getGuessStrategy() {
+        return guessStrategy;
+    }
+
+    public WordleDictionary getDictionary() {
+        return dictionary;
+    }
+
+    // Живой набор кандидатов для стратегий; изменять его снаружи нельзя
+    long[] candidates() {
+        return candidates;
+    }
+
+    // Подходит ли слово словаря под все подсказки; слова вне пула ответов кандидатами не бывают
+    boolean isCandidate(int index) {
+        return dictionary.isAnswer(index) && (candidates[index >>> 6] & (1L << index)) != 0;
+    }
+
+    // Сколько ответов ещё подходит под все подсказки
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    // Обход оставшихся кандидатов без копирования набора
+    public Iterator<String> candidateIterator() {
+        return new Iterator<>() {
+            private int next = WordleCandidateIndex.nextCandidate(candidates, 0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public String next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                String word = dictionary.getWord(next);
+                next = WordleCandidateIndex.nextCandidate(candidates, next + 1);
+                return word;
+            }
+        };
     }
 
     public int getRemainingSteps() {
@@ -0,0 +1,129 @@
+package ru.yandex.practicum;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/*
+компактный двоичный снимок состояния игры
+    слова хранятся индексами в словаре (varint), подсказки - троичными кодами в одном байте
+    формат: версия, 16 бит хеша словаря, индекс ответа + 1 (0 - ответ не выбран), число ходов, пары (догадка, подсказка)
+    подсказка занимает байт для слов до 5 букв и два байта для более длинных
+    старший бит байта с числом ходов - признак сложного режима
+    партия из 6 ходов занимает около 24 байт; восстановить её можно на любом узле с тем же словарём
+ */
+public final class WordleGameSnapshot {
+    private static final int VERSION = 1;
+    private static final int HARD_MODE_FLAG = 0x80;
+    // Версия + хеш + ответ (до 5 байт) + число ходов + не больше 11 ходов по 7 байт
+    public static final int MAX_SIZE = 1 + 2 + 5 + 1 + (WordleAlphabet.MAX_WORD_LENGTH + 1) * 7;
+
+    private WordleGameSnapshot() {
+    }
+
+    public static byte[] encode(WordleGame game) {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_SIZE);
+        encode(game, buffer);
+        byte[] snapshot = new byte[buffer.position()];
+        buffer.flip().get(snapshot);
+        return snapshot;
+    }
+
+    // Запись снимка в чужой буфер, например в общий буфер пачки сессий
+    public static void encode(WordleGame game, ByteBuffer out) {
+        WordleDictionary dictionary = game.getDictionary();
+        String answer = game.getAnswer();
+        int answerIndex = answer == null ? -1 : dictionary.indexOf(answer);
+        if (answer != null && answerIndex < 0) {
+            throw new IllegalStateException("Ответ не из словаря, снимок невозможен");
+        }
+
+        List<String> guesses = game.getPreviousGuesses();
+        List<String> hints = game.getPreviousHints();
+        try {
+            out.put((byte) VERSION);
+            out.putShort((short) dictionary.getContentHash());
+            putVarInt(out, answerIndex + 1);
+            out.put((byte) (guesses.size() | (game.isHardMode() ? HARD_MODE_FLAG : 0)));
+            for (int i = 0; i < guesses.size(); i++) {
+                putVarInt(out, dictionary.indexOf(guesses.get(i)));
+                putPattern(out, WordleFeedback.fromHint(hints.get(i)), dictionary.getWordLength());
+            }
+        } catch (BufferOverflowException e) {
+            throw new IllegalArgumentException("Буфер слишком мал для снимка", e);
+        }
+    }
+
+    // Чтение снимка прямо из буфера, без промежуточного копирования
+    public static WordleGame decode(WordleDictionary dictionary, ByteBuffer in) {
+        try {
+            if (in.get() != VERSION) {
+                throw new IllegalArgumentException("Неизвестная версия снимка");
+            }
+            if (in.getShort() != (short) dictionary.getContentHash()) {
+                throw new IllegalArgumentException("Снимок сделан для другого словаря");
+            }
+            int answerIndex = getVarInt(in) - 1;
+            if (answerIndex < -1 || answerIndex >= dictionary.getAnswerCount()) {
+                throw new IllegalArgumentException("Некорректный ответ в снимке");
+            }
+            // Ответ не выбран - это незаконченная игра против противника
+            WordleGame game = answerIndex < 0
+                    ? WordleGame.adversarial(dictionary)
+                    : new WordleGame(dictionary, dictionary.getWord(answerIndex));
+
+            int moves = in.get() & 0xFF;
+            game.setHardMode((moves & HARD_MODE_FLAG) != 0);
+            moves &= ~HARD_MODE_FLAG;
+            for (int i = 0; i < moves; i++) {
+                int guessIndex = getVarInt(in);
+                int pattern = getPattern(in, dictionary.getWordLength());
+                if (guessIndex < 0 || guessIndex >= dictionary.size()
+                        || pattern >= WordleFeedback.patternCount(dictionary.getWordLength())) {
+                    throw new IllegalArgumentException("Некорректный ход в снимке");
+                }
+                // Хеш словаря в снимке короткий, поэтому при известном ответе подсказку пересчитываем
+                if (answerIndex >= 0 && pattern != dictionary.getPattern(guessIndex, answerIndex)) {
+                    throw new IllegalArgumentException("Подсказка в снимке не совпадает с ответом");
+                }
+                game.replayMove(guessIndex, pattern);
+            }
+            return game;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Снимок обрезан", e);
+        }
+    }
+
+    private static void putPattern(ByteBuffer out, int pattern, int wordLength) {
+        if (WordleFeedback.patternCount(wordLength) <= 256) {
+            out.put((byte) pattern);
+        } else {
+            out.putShort((short) pattern);
+        }
+    }
+
+    private static int getPattern(ByteBuffer in, int wordLength) {
+        return WordleFeedback.patternCount(wordLength) <= 256 ? in.get() & 0xFF : in.getShort() & 0xFFFF;
+    }
+
+    private static void putVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int getVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Некорректное число в снимке");
+    }
+}
@@ -0,0 +1,129 @@
+package ru.yandex.practicum;
+
+import ru.yandex.practicum.exception.HardModeViolationException;
+import ru.yandex.practicum.exception.HardModeViolationException.Rule;
+
+import java.util.Arrays;
+
+/*
+сводка ограничений сложного режима по всем уже полученным подсказкам
+    зелёные буквы закрепляются за позициями
+    на каждой позиции - битовая маска запрещённых букв (кодов алфавита не больше 64)
+    для каждой буквы - нижняя и верхняя граница числа вхождений
+сводка обновляется после каждого хода, а проверка догадки не зависит от длины истории
+и словаря: O(длина слова ^ 2) операций над упакованным словом, без выделения памяти
+
+слово удовлетворяет сводке тогда и только тогда, когда оно совместимо со всеми подсказками,
+то есть среди ответов допустимые догадки сложного режима - это ровно текущие кандидаты игры;
+слова только из пула догадок проверяются той же сводкой
+ */
+final class WordleHardModeConstraints {
+    private final int wordLength;
+    // Код закреплённой буквы на позиции или 0
+    private final int[] fixed;
+    private final long[] banned;
+    private final int[] minCounts = new int[WordleAlphabet.SIZE];
+    private final int[] maxCounts = new int[WordleAlphabet.SIZE];
+    // Буквы с ненулевой нижней границей - их проверяем отдельно
+    private long requiredLetters;
+
+    WordleHardModeConstraints(int wordLength) {
+        this.wordLength = wordLength;
+        this.fixed = new int[wordLength];
+        this.banned = new long[wordLength];
+        Arrays.fill(maxCounts, wordLength);
+    }
+
+    // Учесть подсказку очередного хода
+    void update(long guess, int pattern) {
+        int digits = pattern;
+        for (int position = 0; position < wordLength; position++) {
+            int letter = WordleAlphabet.letterAt(guess, position);
+            if (digits % 3 == WordleFeedback.EXACT) {
+                fixed[position] = letter;
+            } else {
+                banned[position] |= 1L << letter;
+            }
+            digits /= 3;
+        }
+
+        for (int position = 0; position < wordLength; position++) {
+            int letter = WordleAlphabet.letterAt(guess, position);
+            if (occurrences(guess, letter, position) > 0) {
+                continue;
+            }
+            int marked = 0;
+            boolean absent = false;
+            digits = pattern;
+            for (int j = 0; j < wordLength; j++) {
+                if (WordleAlphabet.letterAt(guess, j) == letter) {
+                    if (digits % 3 == WordleFeedback.NO) {
+                        absent = true;
+                    } else {
+                        marked++;
+                    }
+                }
+                digits /= 3;
+            }
+            if (marked > minCounts[letter]) {
+                minCounts[letter] = marked;
+                requiredLetters |= 1L << letter;
+            }
+            // Серая буква означает, что в ответе её ровно столько, сколько отмечено
+            if (absent && marked < maxCounts[letter]) {
+                maxCounts[letter] = marked;
+            }
+        }
+    }
+
+    // Проверка догадки; при нарушении - исключение с первым нарушенным правилом
+    void check(long guess) {
+        for (int position = 0; position < wordLength; position++) {
+            int expected = fixed[position];
+            if (expected != 0 && WordleAlphabet.letterAt(guess, position) != expected) {
+                char letter = WordleAlphabet.letter(expected);
+                throw new HardModeViolationException("На позиции " + (position + 1) + " должна стоять буква "
+                        + letter, Rule.FIXED_LETTER, letter, position + 1);
+            }
+        }
+
+        for (long letters = requiredLetters; letters != 0; letters &= letters - 1) {
+            int code = Long.numberOfTrailingZeros(letters);
+            if (occurrences(guess, code, wordLength) < minCounts[code]) {
+                char letter = WordleAlphabet.letter(code);
+                String message = minCounts[code] == 1
+                        ? "Слово должно содержать букву " + letter
+                        : "Буква " + letter + " должна встречаться не меньше " + minCounts[code] + " раз";
+                throw new HardModeViolationException(message, Rule.REQUIRED_LETTER, letter, 0);
+            }
+        }
+
+        for (int position = 0; position < wordLength; position++) {
+            int code = WordleAlphabet.letterAt(guess, position);
+            if ((banned[position] & (1L << code)) != 0 && maxCounts[code] > 0) {
+                char letter = WordleAlphabet.letter(code);
+                throw new HardModeViolationException("Буква " + letter + " не может стоять на позиции "
+                        + (position + 1), Rule.BANNED_POSITION, letter, position + 1);
+            }
+            // Проверяем каждую букву один раз, на её первом вхождении
+            if (occurrences(guess, code, position) == 0 && occurrences(guess, code, wordLength) > maxCounts[code]) {
+                char letter = WordleAlphabet.letter(code);
+                String message = maxCounts[code] == 0
+                        ? "В слове нет буквы " + letter
+                        : "Буква " + letter + " встречается в слове только " + maxCounts[code] + " раз";
+                throw new HardModeViolationException(message, Rule.LETTER_LIMIT, letter, 0);
+            }
+        }
+    }
+
+    // Число вхождений буквы среди первых limit позиций слова
+    private int occurrences(long word, int letter, int limit) {
+        int count = 0;
+        for (int position = 0; position < limit; position++) {
+            if (WordleAlphabet.letterAt(word, position) == letter) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
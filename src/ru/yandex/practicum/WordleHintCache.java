@@ -0,0 +1,192 @@
+package ru.yandex.practicum;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+кэш результатов по истории ходов
+    ключ - словарь и последовательность пар (индекс догадки, код подсказки) с заранее посчитанным хешем
+    значение - набор кандидатов после этих ходов и/или слово, которое для них выбрала стратегия
+    ходы разных стратегий хранятся под разными ключами (стратегия сравнивается по ссылке)
+    кэш разбит на сегменты, в каждом свой LinkedHashMap в порядке доступа - вытесняются давно не нужные записи
+    счётчики попаданий, промахов и вытеснений - на LongAdder, чтобы не было общей точки конкуренции
+ */
+public class WordleHintCache {
+    public static final int DEFAULT_MAX_ENTRIES = 65_536;
+
+    private static final int SEGMENTS = 16;
+    private static final int NO_SUGGESTION = -2;
+
+    // Ключ: хеш считается один раз, equals сравнивает историю целиком
+    private static final class HistoryKey {
+        final long dictionaryHash;
+        final boolean hardMode;
+        // Стратегия, выбравшая ход; null для ключей набора кандидатов
+        final GuessStrategy strategy;
+        final int[] moves;
+        final int hash;
+
+        HistoryKey(long dictionaryHash, boolean hardMode, GuessStrategy strategy, int[] moves) {
+            this.dictionaryHash = dictionaryHash;
+            this.hardMode = hardMode;
+            this.strategy = strategy;
+            this.moves = moves;
+            long h = (hardMode ? ~dictionaryHash : dictionaryHash) ^ System.identityHashCode(strategy);
+            for (int move : moves) {
+                h = (h ^ move) * 0x100000001b3L;
+            }
+            this.hash = (int) (h ^ (h >>> 32));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof HistoryKey)) {
+                return false;
+            }
+            HistoryKey other = (HistoryKey) o;
+            return hash == other.hash && dictionaryHash == other.dictionaryHash && hardMode == other.hardMode
+                    && strategy == other.strategy && Arrays.equals(moves, other.moves);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        volatile long[] candidates;
+        volatile int suggestion = NO_SUGGESTION;
+    }
+
+    private final class Segment extends LinkedHashMap<HistoryKey, Entry> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxEntries;
+
+        Segment(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<HistoryKey, Entry> eldest) {
+            if (size() > maxEntries) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public WordleHintCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public WordleHintCache(int maxEntries) {
+        int perSegment = Math.max(1, maxEntries / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    // Кандидаты после указанных ходов; возвращаемый массив общий и менять его нельзя
+    public long[] candidates(WordleDictionary dictionary, List<String> guesses, List<String> hints) {
+        Entry entry = entry(key(dictionary, guesses, hints, false, null));
+        long[] candidates = entry.candidates;
+        if (candidates != null) {
+            hits.increment();
+            return candidates;
+        }
+        misses.increment();
+        candidates = dictionary.filterCandidates(guesses, hints);
+        entry.candidates = candidates;
+        return candidates;
+    }
+
+    // То же, что WordleDictionary.filterWords, но с кэшем
+    public List<String> filterWords(WordleDictionary dictionary, List<String> guesses, List<String> hints) {
+        long[] candidates = candidates(dictionary, guesses, hints);
+        List<String> words = new ArrayList<>(WordleCandidateIndex.count(candidates));
+        for (int i = WordleCandidateIndex.nextCandidate(candidates, 0); i >= 0;
+             i = WordleCandidateIndex.nextCandidate(candidates, i + 1)) {
+            words.add(dictionary.getWord(i));
+        }
+        return words;
+    }
+
+    // Ход стратегии для текущей истории игры; считается только при промахе
+    // в сложном режиме стратегия выбирает из других слов, поэтому его ходы хранятся отдельно
+    public int suggestion(WordleGame game, GuessStrategy strategy) {
+        WordleDictionary dictionary = game.getDictionary();
+        Entry entry = entry(key(dictionary, game.getPreviousGuesses(), game.getPreviousHints(), game.isHardMode(),
+                strategy));
+        int suggestion = entry.suggestion;
+        if (suggestion != NO_SUGGESTION) {
+            hits.increment();
+            return suggestion;
+        }
+        misses.increment();
+        GuessStrategy.Choice choice = strategy.choose(game);
+        // Ход, оборванный бюджетом времени, отдаём, но не запоминаем
+        if (choice.isComplete()) {
+            entry.suggestion = choice.getGuess();
+        }
+        return choice.getGuess();
+    }
+
+    private HistoryKey key(WordleDictionary dictionary, List<String> guesses, List<String> hints,
+                           boolean hardMode, GuessStrategy strategy) {
+        // По два числа на ход: подсказки длинных слов не помещаются в несколько бит рядом с индексом
+        int[] moves = new int[guesses.size() * 2];
+        for (int i = 0; i < guesses.size(); i++) {
+            int guessIndex = dictionary.indexOf(guesses.get(i));
+            if (guessIndex < 0) {
+                throw new IllegalArgumentException("Слово не найдено в словаре: " + guesses.get(i));
+            }
+            moves[2 * i] = guessIndex;
+            moves[2 * i + 1] = WordleFeedback.fromHint(hints.get(i));
+        }
+        return new HistoryKey(dictionary.getContentHash(), hardMode, strategy, moves);
+    }
+
+    private Entry entry(HistoryKey key) {
+        Segment segment = segments[(key.hash ^ (key.hash >>> 16)) & (SEGMENTS - 1)];
+        synchronized (segment) {
+            return segment.computeIfAbsent(key, k -> new Entry());
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,202 @@
+package ru.yandex.practicum;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+метрики игровых операций
+    счётчики - на LongAdder, задержки и размеры наборов кандидатов - в WordleHistogram
+    один общий экземпляр WordleMetrics.global() пишут WordleGame, WordleDictionary и WordleDictionaryLoader
+    наружу метрики видны через JMX (ru.yandex.practicum:type=WordleMetrics) и текстовый dump()
+ */
+public class WordleMetrics implements WordleMetricsMBean {
+    public static final String OBJECT_NAME = "ru.yandex.practicum:type=WordleMetrics";
+
+    private static final WordleMetrics GLOBAL = new WordleMetrics();
+
+    private final LongAdder gamesWon = new LongAdder();
+    private final LongAdder gamesLost = new LongAdder();
+    private final LongAdder dictionaryLoads = new LongAdder();
+    private volatile long lastDictionaryLoadNanos;
+
+    private final WordleHistogram makeGuessNanos = new WordleHistogram();
+    private final WordleHistogram hintNanos = new WordleHistogram();
+    private final WordleHistogram filterNanos = new WordleHistogram();
+    private final WordleHistogram loadNanos = new WordleHistogram();
+    private final WordleHistogram candidatesAfterMove = new WordleHistogram();
+
+    public static WordleMetrics global() {
+        return GLOBAL;
+    }
+
+    // Регистрация в платформенном MBeanServer; повторная регистрация ничего не делает
+    public void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (InstanceAlreadyExistsException e) {
+            // Другой поток успел раньше
+        } catch (JMException e) {
+            throw new IllegalStateException("Не удалось зарегистрировать метрики в JMX: " + e.getMessage(), e);
+        }
+    }
+
+    void recordGuess(long nanos, int candidates) {
+        makeGuessNanos.record(nanos);
+        candidatesAfterMove.record(candidates);
+    }
+
+    void recordHint(long nanos) {
+        hintNanos.record(nanos);
+    }
+
+    void recordFilter(long nanos) {
+        filterNanos.record(nanos);
+    }
+
+    void recordGameFinished(boolean won) {
+        if (won) {
+            gamesWon.increment();
+        } else {
+            gamesLost.increment();
+        }
+    }
+
+    void recordDictionaryLoad(long nanos) {
+        dictionaryLoads.increment();
+        loadNanos.record(nanos);
+        lastDictionaryLoadNanos = nanos;
+    }
+
+    @Override
+    public long getGuessCount() {
+        return makeGuessNanos.getCount();
+    }
+
+    @Override
+    public long getHintCount() {
+        return hintNanos.getCount();
+    }
+
+    @Override
+    public long getFilterCount() {
+        return filterNanos.getCount();
+    }
+
+    @Override
+    public long getGamesWon() {
+        return gamesWon.sum();
+    }
+
+    @Override
+    public long getGamesLost() {
+        return gamesLost.sum();
+    }
+
+    @Override
+    public long getDictionaryLoads() {
+        return dictionaryLoads.sum();
+    }
+
+    @Override
+    public long getLastDictionaryLoadMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastDictionaryLoadNanos);
+    }
+
+    @Override
+    public double getMakeGuessMeanMicros() {
+        return makeGuessNanos.getMean() / 1000;
+    }
+
+    @Override
+    public long getMakeGuessP99Micros() {
+        return makeGuessNanos.getPercentile(0.99) / 1000;
+    }
+
+    @Override
+    public double getHintMeanMicros() {
+        return hintNanos.getMean() / 1000;
+    }
+
+    @Override
+    public long getHintP99Micros() {
+        return hintNanos.getPercentile(0.99) / 1000;
+    }
+
+    @Override
+    public double getFilterMeanMicros() {
+        return filterNanos.getMean() / 1000;
+    }
+
+    @Override
+    public double getCandidatesAfterMoveMean() {
+        return candidatesAfterMove.getMean();
+    }
+
+    public WordleHistogram getMakeGuessHistogram() {
+        return makeGuessNanos;
+    }
+
+    public WordleHistogram getHintHistogram() {
+        return hintNanos;
+    }
+
+    public WordleHistogram getFilterHistogram() {
+        return filterNanos;
+    }
+
+    public WordleHistogram getLoadHistogram() {
+        return loadNanos;
+    }
+
+    public WordleHistogram getCandidatesHistogram() {
+        return candidatesAfterMove;
+    }
+
+    // Текстовый отчёт: по строке на метрику
+    @Override
+    public String dump() {
+        StringBuilder report = new StringBuilder();
+        report.append("games.won ").append(getGamesWon()).append('\n');
+        report.append("games.lost ").append(getGamesLost()).append('\n');
+        report.append("dictionary.loads ").append(getDictionaryLoads()).append('\n');
+        report.append("dictionary.last_load_ms ").append(getLastDictionaryLoadMillis()).append('\n');
+        appendLatency(report, "make_guess", makeGuessNanos);
+        appendLatency(report, "get_hint", hintNanos);
+        appendLatency(report, "filter_words", filterNanos);
+        appendLatency(report, "dictionary.load", loadNanos);
+        report.append("candidates_after_move.count ").append(candidatesAfterMove.getCount()).append('\n');
+        // Locale.ROOT - в отчёте всегда десятичная точка, независимо от локали сервера
+        report.append(String.format(Locale.ROOT, "candidates_after_move.mean %.1f\n", candidatesAfterMove.getMean()));
+        report.append("candidates_after_move.p50 ").append(candidatesAfterMove.getPercentile(0.5)).append('\n');
+        report.append("candidates_after_move.max ").append(candidatesAfterMove.getMax()).append('\n');
+        return report.toString();
+    }
+
+    private static void appendLatency(StringBuilder report, String name, WordleHistogram histogram) {
+        report.append(name).append(".count ").append(histogram.getCount()).append('\n');
+        report.append(String.format(Locale.ROOT, "%s.mean_us %.1f\n", name, histogram.getMean() / 1000));
+        report.append(name).append(".p50_us ").append(histogram.getPercentile(0.5) / 1000).append('\n');
+        report.append(name).append(".p99_us ").append(histogram.getPercentile(0.99) / 1000).append('\n');
+        report.append(name).append(".max_us ").append(histogram.getMax() / 1000).append('\n');
+    }
+
+    @Override
+    public void reset() {
+        gamesWon.reset();
+        gamesLost.reset();
+        dictionaryLoads.reset();
+        lastDictionaryLoadNanos = 0;
+        makeGuessNanos.reset();
+        hintNanos.reset();
+        filterNanos.reset();
+        loadNanos.reset();
+        candidatesAfterMove.reset();
+    }
+}
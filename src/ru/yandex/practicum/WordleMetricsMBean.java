@@ -0,0 +1,36 @@
+package ru.yandex.practicum;
+
+/*
+JMX-интерфейс метрик игры; задержки отдаются в микросекундах
+ */
+public interface WordleMetricsMBean {
+    long getGuessCount();
+
+    long getHintCount();
+
+    long getFilterCount();
+
+    long getGamesWon();
+
+    long getGamesLost();
+
+    long getDictionaryLoads();
+
+    long getLastDictionaryLoadMillis();
+
+    double getMakeGuessMeanMicros();
+
+    long getMakeGuessP99Micros();
+
+    double getHintMeanMicros();
+
+    long getHintP99Micros();
+
+    double getFilterMeanMicros();
+
+    double getCandidatesAfterMoveMean();
+
+    String dump();
+
+    void reset();
+}
@@ -0,0 +1,176 @@
+package ru.yandex.practicum;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.Arrays;
+
+/*
+дебютная книга для автоходов
+    для фиксированного словаря лучший первый ход и лучший второй ход на каждую подсказку не меняются
+    книга считается один раз, привязывается к хешу содержимого словаря и сохраняется в маленький двоичный файл
+    формат файла: MAGIC, хеш словаря, длина слова, первый ход, число подсказок, индексы вторых ходов (-1 - нет)
+    расчёт без ограничения по времени долгий, поэтому интерактивная игра его не ждёт:
+    книга досчитывается в фоне (computeInBackground) и пригождается со следующего запуска
+ */
+public class WordleOpeningBook {
+    public static final String FILE_SUFFIX = ".book";
+
+    private static final int MAGIC = 0x574F4231; // "WOB1"
+
+    private final long contentHash;
+    private final int wordLength;
+    private final int firstGuess;
+    private final int[] secondGuesses;
+    // Наибольший индекс хода: книга подходит только словарю, где есть такое слово
+    private final int maxGuess;
+
+    private WordleOpeningBook(long contentHash, int wordLength, int firstGuess, int[] secondGuesses) {
+        this.contentHash = contentHash;
+        this.wordLength = wordLength;
+        this.firstGuess = firstGuess;
+        this.secondGuesses = secondGuesses;
+        this.maxGuess = Math.max(firstGuess, Arrays.stream(secondGuesses).max().orElse(-1));
+    }
+
+    // Расчёт книги стратегией без ограничения по времени
+    public static WordleOpeningBook compute(WordleDictionary dictionary) {
+        return compute(dictionary, new EntropyGuessStrategy(EntropyGuessStrategy.Mode.ENTROPY, Integer.MAX_VALUE,
+                Long.MAX_VALUE));
+    }
+
+    public static WordleOpeningBook compute(WordleDictionary dictionary, EntropyGuessStrategy strategy) {
+        WordleCandidateIndex index = dictionary.getCandidateIndex();
+        int firstGuess = strategy.bestGuess(dictionary, index.all());
+        if (firstGuess < 0) {
+            throw new IllegalStateException("Словарь пуст");
+        }
+
+        int[] secondGuesses = new int[WordleFeedback.patternCount(dictionary.getWordLength())];
+        Arrays.fill(secondGuesses, -1);
+        long guess = dictionary.getPackedWord(firstGuess);
+        for (int pattern = 0; pattern < secondGuesses.length; pattern++) {
+            long[] candidates = index.all();
+            index.apply(candidates, guess, pattern);
+            if (WordleCandidateIndex.count(candidates) > 0) {
+                secondGuesses[pattern] = strategy.bestGuess(dictionary, candidates);
+            }
+        }
+        return new WordleOpeningBook(dictionary.getContentHash(), dictionary.getWordLength(), firstGuess,
+                secondGuesses);
+    }
+
+    // Книга лежит рядом с файлом словаря; если её нет или она от другого словаря - считаем и сохраняем
+    public static WordleOpeningBook loadOrCompute(WordleDictionary dictionary, String sourceFilename)
+            throws IOException {
+        return loadOrCompute(dictionary, sourceFilename, null);
+    }
+
+    // То же для словаря с отдельным файлом ответов
+    public static WordleOpeningBook loadOrCompute(WordleDictionary dictionary, String sourceFilename,
+                                                  String answersFilename) throws IOException {
+        Path path = path(sourceFilename, answersFilename, dictionary.getWordLength());
+        WordleOpeningBook book = load(dictionary, path);
+        if (book == null) {
+            book = compute(dictionary);
+            book.write(path);
+        }
+        return book;
+    }
+
+    // Своя книга для каждой длины слова и каждого файла ответов, чтобы режимы не перезаписывали друг друга
+    public static Path path(String sourceFilename, String answersFilename, int wordLength) {
+        String base = answersFilename == null
+                ? sourceFilename
+                : sourceFilename + "." + Paths.get(answersFilename).getFileName();
+        return Paths.get(wordLength == WordleDictionary.WORD_LENGTH
+                ? base + FILE_SUFFIX
+                : base + "." + wordLength + FILE_SUFFIX);
+    }
+
+    // Готовая книга для словаря или null, если файла нет, он повреждён или от другого словаря
+    public static WordleOpeningBook load(WordleDictionary dictionary, Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        WordleOpeningBook book = read(path);
+        return book != null && book.matches(dictionary) ? book : null;
+    }
+
+    // Расчёт и запись книги в фоновом потоке-демоне; ошибки записи только теряют кэш
+    public static Thread computeInBackground(WordleDictionary dictionary, Path path) {
+        Thread thread = new Thread(() -> {
+            try {
+                compute(dictionary).write(path);
+            } catch (IOException e) {
+                // Книга посчитается при следующем запуске
+            }
+        }, "wordle-opening-book");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    // null, если файл не является дебютной книгой или в нём есть невозможные индексы
+    public static WordleOpeningBook read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            long contentHash = in.readLong();
+            int wordLength = in.readInt();
+            if (wordLength <= 0 || wordLength > WordleAlphabet.MAX_WORD_LENGTH) {
+                return null;
+            }
+            int firstGuess = in.readInt();
+            if (firstGuess < 0) {
+                return null;
+            }
+            int[] secondGuesses = new int[in.readInt()];
+            if (secondGuesses.length != WordleFeedback.patternCount(wordLength)) {
+                return null;
+            }
+            for (int i = 0; i < secondGuesses.length; i++) {
+                secondGuesses[i] = in.readInt();
+                // -1 означает "подсказка невозможна", других отрицательных значений быть не может
+                if (secondGuesses[i] < -1) {
+                    return null;
+                }
+            }
+            return new WordleOpeningBook(contentHash, wordLength, firstGuess, secondGuesses);
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    // Запись через временный файл: прерванный расчёт или запись не оставляют обрезанную книгу
+    public void write(Path path) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeLong(contentHash);
+            out.writeInt(wordLength);
+            out.writeInt(firstGuess);
+            out.writeInt(secondGuesses.length);
+            for (int guess : secondGuesses) {
+                out.writeInt(guess);
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Книга посчитана именно для этого словаря
+    public boolean matches(WordleDictionary dictionary) {
+        return contentHash == dictionary.getContentHash() && wordLength == dictionary.getWordLength()
+                && maxGuess < dictionary.size();
+    }
+
+    public int getFirstGuess() {
+        return firstGuess;
+    }
+
+    // Второй ход после подсказки на первый ход или -1
+    public int getSecondGuess(int pattern) {
+        return secondGuesses[pattern];
+    }
+}
@@ -0,0 +1,156 @@
+package ru.yandex.practicum;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/*
+матрица подсказок "догадка x ответ" для загруженного словаря
+    строки - все допустимые догадки, столбцы - только пул ответов (начало массива слов)
+    каждая ячейка - один байт с кодом подсказки (0..242), -1 означает "ещё не посчитано"
+    таблица заполняется лениво при обращении или целиком методом precompute()
+    полностью посчитанную таблицу можно сохранить в файл и потом отобразить в память через FileChannel.map
+ */
+public final class WordlePatternTable {
+    // Больше 8192 x 8192 ячеек - это уже 64 МБ, такие словари считаем на лету
+    public static final int DEFAULT_MAX_WORDS = 8192;
+
+    private static final byte UNKNOWN = -1;
+    private static final int MAGIC = 0x57505432; // "WPT2"
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 4 + 8;
+
+    private final long[] words;
+    private final int size;
+    private final int answers;
+    private final int wordLength;
+    private final byte[] data;
+    private final ByteBuffer mapped;
+    // Таблица посчитана целиком и дальше читается без проверок
+    private volatile boolean complete;
+
+    WordlePatternTable(long[] words, int size, int answers, int wordLength) {
+        this.words = words;
+        this.size = size;
+        this.answers = answers;
+        this.wordLength = wordLength;
+        this.data = new byte[size * answers];
+        this.mapped = null;
+        Arrays.fill(data, UNKNOWN);
+    }
+
+    private WordlePatternTable(long[] words, int size, int answers, int wordLength, ByteBuffer mapped) {
+        this.words = words;
+        this.size = size;
+        this.answers = answers;
+        this.wordLength = wordLength;
+        this.data = null;
+        this.mapped = mapped;
+        this.complete = true;
+    }
+
+    // Таблица влезает в byte[] и один байт вмещает все коды подсказок
+    public static boolean supports(int size, int answers, int wordLength) {
+        return (long) size * answers <= (long) DEFAULT_MAX_WORDS * DEFAULT_MAX_WORDS
+                && WordleFeedback.patternCount(wordLength) <= 256;
+    }
+
+    // Число строк - догадок
+    public int size() {
+        return size;
+    }
+
+    // Число столбцов - ответов
+    public int answerCount() {
+        return answers;
+    }
+
+    public boolean isMapped() {
+        return mapped != null;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    // Код подсказки для пары индексов слов
+    public int get(int guess, int answer) {
+        int cell = guess * answers + answer;
+        if (mapped != null) {
+            return mapped.get(HEADER_SIZE + cell) & 0xFF;
+        }
+        byte value = data[cell];
+        if (value == UNKNOWN) {
+            // Гонка при ленивом заполнении безопасна: все потоки пишут одно и то же значение
+            value = (byte) WordleFeedback.score(words[guess], words[answer], wordLength);
+            data[cell] = value;
+        }
+        return value & 0xFF;
+    }
+
+    // Полное заполнение таблицы, строки считаются параллельно
+    public void precompute() {
+        if (mapped != null) {
+            return;
+        }
+        IntStream.range(0, size).parallel().forEach(guess -> {
+            // Строка таблицы - это пакетная оценка одной догадки против всего пула ответов
+            WordleBatchScorer scorer = new WordleBatchScorer(wordLength).setGuess(words[guess]);
+            int offset = guess * answers;
+            for (int answer = 0; answer < answers; answer++) {
+                if (data[offset + answer] == UNKNOWN) {
+                    data[offset + answer] = (byte) scorer.score(words[answer]);
+                }
+            }
+        });
+        complete = true;
+    }
+
+    // Сохранение таблицы в файл кэша: заголовок, хеш словаря и size * answers байт
+    public void writeTo(Path path, long contentHash) throws IOException {
+        precompute();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(size);
+            out.writeInt(answers);
+            out.writeInt(wordLength);
+            out.writeLong(contentHash);
+            if (data != null) {
+                out.write(data);
+            } else {
+                for (int i = 0; i < size * answers; i++) {
+                    out.writeByte(mapped.get(HEADER_SIZE + i));
+                }
+            }
+        }
+    }
+
+    // Отображение файла кэша в память; null, если файл не подходит к словарю
+    public static WordlePatternTable map(Path path, long[] words, int size, int answers, int wordLength,
+                                         long contentHash) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long expectedSize = HEADER_SIZE + (long) size * answers;
+            if (channel.size() != expectedSize) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, expectedSize);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (buffer.getInt(0) != MAGIC
+                    || buffer.getInt(4) != size
+                    || buffer.getInt(8) != answers
+                    || buffer.getInt(12) != wordLength
+                    || buffer.getLong(16) != contentHash) {
+                return null;
+            }
+            return new WordlePatternTable(words, size, answers, wordLength, buffer);
+        }
+    }
+}
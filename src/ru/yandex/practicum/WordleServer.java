@@ -0,0 +1,388 @@
+package ru.yandex.practicum;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ru.yandex.practicum.exception.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+встроенный HTTP-сервер игры с ответами в JSON
+    POST   /games              - новая игра, ?length=N - игра на слова из N букв, ?hard=true - сложный режим,
+                                 ?adversarial=true - противник без заранее выбранного ответа
+    GET    /games/{id}         - состояние игры
+    POST   /games/{id}/guess   - ход, тело {"word": "слово"}
+    GET    /games/{id}/hint    - подсказка (автоход) от стратегии
+    DELETE /games/{id}         - завершить сессию
+    GET    /metrics            - текстовый отчёт WordleMetrics
+все игры одной длины используют один общий словарь из WordleDictionaryRegistry;
+каждый запрос обрабатывается в своём виртуальном потоке; запросы к одной игре идут по очереди
+под ReentrantLock сессии - виртуальный поток, ждущий на ней, не держит поток-носитель
+словари берутся у поставщика при создании игры, поэтому с WordleDictionaryManager
+новые игры сразу видят перезагруженный словарь, а начатые доигрываются на старом
+ */
+public class WordleServer implements AutoCloseable {
+    private static final Pattern GAME_PATH = Pattern.compile("^/games/([0-9a-f]+)(/guess|/hint)?/?$");
+    private static final Pattern LENGTH_PARAM = Pattern.compile("(?:^|&)length=(\\d{1,2})(?:&|$)");
+    private static final Pattern HARD_PARAM = Pattern.compile("(?:^|&)hard=(?:true|1)(?:&|$)");
+    private static final Pattern ADVERSARIAL_PARAM = Pattern.compile("(?:^|&)adversarial=(?:true|1)(?:&|$)");
+    private static final Pattern WORD_FIELD = Pattern.compile("\"word\"\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    public static final int DEFAULT_MAX_SESSIONS = 100_000;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
+    private final Supplier<WordleDictionaryRegistry> dictionaries;
+    private final GuessStrategy strategy;
+    private final WordleSessionStore sessions;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public WordleServer(WordleDictionary dictionary, GuessStrategy strategy, int port, WordleSessionStore sessions)
+            throws IOException {
+        this(WordleDictionaryRegistry.of(dictionary), strategy, port, sessions);
+    }
+
+    public WordleServer(WordleDictionaryRegistry dictionaries, GuessStrategy strategy, int port,
+                        WordleSessionStore sessions) throws IOException {
+        this(() -> dictionaries, strategy, port, sessions);
+    }
+
+    public WordleServer(Supplier<WordleDictionaryRegistry> dictionaries, GuessStrategy strategy, int port,
+                        WordleSessionStore sessions) throws IOException {
+        this.dictionaries = dictionaries;
+        this.strategy = strategy;
+        this.sessions = sessions;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(executor);
+        server.createContext("/games", this::handle);
+        server.createContext("/metrics", this::handleMetrics);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+        sessions.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/games") || path.equals("/games/")) {
+                if (!method.equals("POST")) {
+                    send(exchange, 405, error("Метод не поддерживается"));
+                    return;
+                }
+                createGame(exchange);
+                return;
+            }
+
+            Matcher matcher = GAME_PATH.matcher(path);
+            if (!matcher.matches()) {
+                send(exchange, 404, error("Неизвестный адрес"));
+                return;
+            }
+            WordleSessionStore.Session session = sessions.get(matcher.group(1));
+            if (session == null) {
+                send(exchange, 404, error("Игра не найдена"));
+                return;
+            }
+
+            String action = matcher.group(2);
+            if (action == null && method.equals("GET")) {
+                String body;
+                ReentrantLock lock = session.getLock();
+                lock.lock();
+                try {
+                    body = state(session);
+                } finally {
+                    lock.unlock();
+                }
+                send(exchange, 200, body);
+            } else if (action == null && method.equals("DELETE")) {
+                sessions.remove(session.getId());
+                send(exchange, 204, null);
+            } else if ("/guess".equals(action) && method.equals("POST")) {
+                guess(exchange, session);
+            } else if ("/hint".equals(action) && method.equals("GET")) {
+                hint(exchange, session);
+            } else {
+                send(exchange, 405, error("Метод не поддерживается"));
+            }
+        } catch (RuntimeException e) {
+            send(exchange, 500, error("Внутренняя ошибка сервера"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            byte[] bytes = WordleMetrics.global().dump().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void createGame(HttpExchange exchange) throws IOException {
+        WordleDictionaryRegistry registry = dictionaries.get();
+        WordleDictionary dictionary = registry.getDefault();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null && query.contains("length=")) {
+            Matcher matcher = LENGTH_PARAM.matcher(query);
+            int length = matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+            if (!registry.supports(length)) {
+                send(exchange, 400, error("Неподдерживаемая длина слова"));
+                return;
+            }
+            dictionary = registry.get(length);
+        }
+        WordleGame game = query != null && ADVERSARIAL_PARAM.matcher(query).find()
+                ? WordleGame.adversarial(dictionary)
+                : new WordleGame(dictionary);
+        game.setGuessStrategy(strategy);
+        game.setHardMode(query != null && HARD_PARAM.matcher(query).find());
+        WordleSessionStore.Session session;
+        try {
+            session = sessions.create(game);
+        } catch (IllegalStateException e) {
+            send(exchange, 503, error(e.getMessage()));
+            return;
+        }
+        send(exchange, 201, state(session));
+    }
+
+    // Ответ сервера; под блокировкой игры только считается, отправляется уже после неё
+    private static final class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private void guess(HttpExchange exchange, WordleSessionStore.Session session) throws IOException {
+        Matcher matcher = WORD_FIELD.matcher(readBody(exchange));
+        if (!matcher.find()) {
+            send(exchange, 400, error("Нужно поле word"));
+            return;
+        }
+        String word = unescape(matcher.group(1));
+        if (word == null) {
+            send(exchange, 400, error("Некорректная строка в поле word"));
+            return;
+        }
+        Response response;
+        ReentrantLock lock = session.getLock();
+        lock.lock();
+        try {
+            response = makeGuess(session, word);
+        } finally {
+            lock.unlock();
+        }
+        send(exchange, response.status, response.body);
+    }
+
+    private Response makeGuess(WordleSessionStore.Session session, String word) {
+        try {
+            String hint = session.getGame().makeGuess(word);
+            return new Response(200, "{\"hint\":" + quote(hint) + "," + state(session).substring(1));
+        } catch (WordNotFoundInDictionaryException e) {
+            return new Response(422, error(e.getMessage()));
+        } catch (WordleGameException e) {
+            return new Response(400, error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return new Response(409, error(e.getMessage()));
+        }
+    }
+
+    private void hint(HttpExchange exchange, WordleSessionStore.Session session) throws IOException {
+        WordleGame game = session.getGame();
+        Response response;
+        ReentrantLock lock = session.getLock();
+        lock.lock();
+        try {
+            if (game.isGameFinished()) {
+                response = new Response(409, error("Игра уже завершена"));
+            } else if (game.getCandidateCount() == 0) {
+                response = new Response(409, error("Нет подходящих слов в словаре"));
+            } else {
+                response = new Response(200, "{\"word\":" + quote(game.getHint()) + "}");
+            }
+        } finally {
+            lock.unlock();
+        }
+        send(exchange, response.status, response.body);
+    }
+
+    private String state(WordleSessionStore.Session session) {
+        WordleGame game = session.getGame();
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"id\":").append(quote(session.getId()))
+                .append(",\"length\":").append(game.getDictionary().getWordLength())
+                .append(",\"hardMode\":").append(game.isHardMode())
+                .append(",\"adversarial\":").append(game.isAdversarial())
+                .append(",\"remainingSteps\":").append(game.getRemainingSteps())
+                .append(",\"finished\":").append(game.isGameFinished())
+                .append(",\"won\":").append(game.isWon())
+                .append(",\"candidates\":").append(game.getCandidateCount())
+                .append(",\"guesses\":");
+        appendArray(json, game.getPreviousGuesses());
+        json.append(",\"hints\":");
+        appendArray(json, game.getPreviousHints());
+        if (game.isGameFinished()) {
+            json.append(",\"answer\":").append(quote(game.getAnswer()));
+        }
+        return json.append('}').toString();
+    }
+
+    private static void appendArray(StringBuilder json, List<String> values) {
+        json.append('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(quote(values.get(i)));
+        }
+        json.append(']');
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + quote(message) + "}";
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < ' ') {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    // Раскодирование строки JSON: \" \\ \/ \b \f \n \r \t и \\uXXXX; null для некорректной строки
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder text = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\') {
+                text.append(c);
+                continue;
+            }
+            if (++i == value.length()) {
+                return null;
+            }
+            switch (value.charAt(i)) {
+                case '"' -> text.append('"');
+                case '\\' -> text.append('\\');
+                case '/' -> text.append('/');
+                case 'b' -> text.append('\b');
+                case 'f' -> text.append('\f');
+                case 'n' -> text.append('\n');
+                case 'r' -> text.append('\r');
+                case 't' -> text.append('\t');
+                case 'u' -> {
+                    if (i + 4 >= value.length()) {
+                        return null;
+                    }
+                    int code = 0;
+                    for (int j = i + 1; j <= i + 4; j++) {
+                        int digit = Character.digit(value.charAt(j), 16);
+                        if (digit < 0) {
+                            return null;
+                        }
+                        code = code * 16 + digit;
+                    }
+                    text.append((char) code);
+                    i += 4;
+                }
+                default -> {
+                    return null;
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readNBytes(4096), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Запуск: WordleServer [порт] [файл словаря] [файл ответов]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        String filename = args.length > 1 ? args[1] : "words_ru.txt";
+        String answersFilename = args.length > 2 ? args[2] : null;
+
+        // Все длины слов из одного файла (и ответы из второго, если он задан);
+        // при изменении файлов словари пересобираются без остановки сервера
+        WordleDictionaryManager dictionaries = new WordleDictionaryManager(filename, answersFilename,
+                new WordleDictionaryLoader());
+        dictionaries.watch();
+        // Дебютная книга считается для основного словаря; после перезагрузки она перестаёт совпадать
+        // со словарём, и ходы выбирает запасная стратегия
+        WordleDictionary dictionary = dictionaries.getDictionary();
+        // Популярные начала партий обслуживаются из кэша подсказок
+        GuessStrategy strategy = new CachingGuessStrategy(new WordleHintCache(),
+                new OpeningBookGuessStrategy(WordleOpeningBook.loadOrCompute(dictionary, filename, answersFilename),
+                        new EntropyGuessStrategy(EntropyGuessStrategy.Mode.ENTROPY,
+                                EntropyGuessStrategy.DEFAULT_MAX_GUESSES, 50)));
+        WordleServer server = new WordleServer(dictionaries, strategy, port,
+                new WordleSessionStore(DEFAULT_MAX_SESSIONS, DEFAULT_IDLE_TIMEOUT_MILLIS));
+        WordleMetrics.global().registerMBean();
+        server.start();
+        System.out.println("Сервер Wordle слушает порт " + server.getPort());
+    }
+}
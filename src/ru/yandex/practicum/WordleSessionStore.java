@@ -0,0 +1,126 @@
+package ru.yandex.practicum;
+
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+хранилище игровых сессий для сервера
+    сессии лежат в ConcurrentHashMap по случайному идентификатору - 128 бит из SecureRandom,
+    потому что знание идентификатора - единственный доступ к игре
+    ходы одной игры упорядочиваются блокировкой сессии: ReentrantLock, а не synchronized,
+    чтобы виртуальный поток, ждущий стратегию, не занимал поток-носитель
+    число сессий ограничено; сессии, к которым давно не обращались, удаляются фоновой очисткой
+    при переполнении сначала выполняется внеочередная очистка, и только потом новая игра отклоняется
+ */
+public final class WordleSessionStore implements AutoCloseable {
+    private static final int ID_BYTES = 16;
+    private static final SecureRandom ID_RANDOM = new SecureRandom();
+
+    public static class Session {
+        private final String id;
+        private final WordleGame game;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long lastAccessNanos;
+
+        Session(String id, WordleGame game) {
+            this.id = id;
+            this.game = game;
+            touch();
+        }
+
+        void touch() {
+            lastAccessNanos = System.nanoTime();
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public WordleGame getGame() {
+            return game;
+        }
+
+        // Блокировка, под которой читается и меняется игра сессии
+        public ReentrantLock getLock() {
+            return lock;
+        }
+    }
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final int maxSessions;
+    private final long idleTimeoutNanos;
+    private final ScheduledExecutorService cleaner;
+
+    public WordleSessionStore(int maxSessions, long idleTimeoutMillis) {
+        if (maxSessions <= 0) {
+            throw new IllegalArgumentException("Число сессий должно быть положительным");
+        }
+        this.maxSessions = maxSessions;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "wordle-session-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Очистка запускается последней, когда все поля уже присвоены
+        long period = Math.max(1, idleTimeoutMillis / 2);
+        cleaner.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Новая сессия; IllegalStateException, если хранилище заполнено активными играми
+    public Session create(WordleGame game) {
+        if (sessions.size() >= maxSessions) {
+            evictIdle();
+            if (sessions.size() >= maxSessions) {
+                throw new IllegalStateException("Слишком много активных игр");
+            }
+        }
+        while (true) {
+            byte[] bytes = new byte[ID_BYTES];
+            ID_RANDOM.nextBytes(bytes);
+            String id = HexFormat.of().formatHex(bytes);
+            Session session = new Session(id, game);
+            if (sessions.putIfAbsent(id, session) == null) {
+                return session;
+            }
+        }
+    }
+
+    // Сессия по идентификатору или null; обращение продлевает её жизнь
+    public Session get(String id) {
+        Session session = sessions.get(id);
+        if (session != null) {
+            session.touch();
+        }
+        return session;
+    }
+
+    public boolean remove(String id) {
+        return sessions.remove(id) != null;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    // Удаление сессий, простаивающих дольше idleTimeout
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Session session : sessions.values()) {
+            if (now - session.lastAccessNanos > idleTimeoutNanos && sessions.remove(session.id, session)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    @Override
+    public void close() {
+        cleaner.shutdownNow();
+        sessions.clear();
+    }
+}
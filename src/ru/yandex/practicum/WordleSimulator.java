@@ -0,0 +1,186 @@
+package ru.yandex.practicum;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/*
+пакетная симуляция игр без консоли
+    прогоняет через WordleGame заданные ответы (или весь словарь), на каждом ходу берёт подсказку стратегии
+    игры выполняются в пуле потоков; при threads == 0 - на виртуальных потоках
+    на выходе - доля побед, распределение числа попыток и скорость в играх в секунду
+ */
+public class WordleSimulator {
+    // Игр в одной задаче пула, чтобы накладные расходы на задачу не съедали выигрыш
+    private static final int BATCH_SIZE = 32;
+
+    private final WordleDictionary dictionary;
+    private final GuessStrategy strategy;
+
+    // strategy может быть null - тогда подсказкой служит случайный кандидат
+    public WordleSimulator(WordleDictionary dictionary, GuessStrategy strategy) {
+        this.dictionary = dictionary;
+        this.strategy = strategy;
+    }
+
+    // Все ответы словаря по одному разу
+    public SimulationResult runAll(int threads) {
+        return run(dictionary.getAnswers(), threads);
+    }
+
+    // games случайных ответов; одинаковый seed даёт одинаковый набор ответов
+    public SimulationResult runRandom(int games, int threads, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<String> answers = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            answers.add(dictionary.getWord(random.nextInt(dictionary.getAnswerCount())));
+        }
+        return run(answers, threads);
+    }
+
+    public SimulationResult run(List<String> answers, int threads) {
+        ExecutorService executor = threads <= 0
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(threads);
+        try {
+            return run(answers, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public SimulationResult run(List<String> answers, ExecutorService executor) {
+        List<Callable<SimulationResult>> tasks = new ArrayList<>();
+        for (int from = 0; from < answers.size(); from += BATCH_SIZE) {
+            List<String> batch = answers.subList(from, Math.min(answers.size(), from + BATCH_SIZE));
+            tasks.add(() -> playBatch(batch));
+        }
+
+        long start = System.nanoTime();
+        SimulationResult total = new SimulationResult(dictionary.getMaxAttempts());
+        try {
+            for (Future<SimulationResult> future : executor.invokeAll(tasks)) {
+                total.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Симуляция прервана", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ошибка в симуляции: " + e.getCause().getMessage(), e.getCause());
+        }
+        total.elapsedNanos = System.nanoTime() - start;
+        return total;
+    }
+
+    private SimulationResult playBatch(List<String> answers) {
+        SimulationResult result = new SimulationResult(dictionary.getMaxAttempts());
+        for (String answer : answers) {
+            WordleGame game = new WordleGame(dictionary, answer);
+            game.setGuessStrategy(strategy);
+            while (!game.isGameFinished() && game.getCandidateCount() > 0) {
+                game.makeGuess(game.getHint());
+            }
+            result.record(game);
+        }
+        return result;
+    }
+
+    // Итоги симуляции
+    public static class SimulationResult {
+        private int games;
+        private int wins;
+        // guessDistribution[n] - сколько игр выиграно за n попыток, n до числа попыток словаря
+        private int[] guessDistribution;
+        private long elapsedNanos;
+
+        SimulationResult(int maxAttempts) {
+            this.guessDistribution = new int[maxAttempts + 1];
+        }
+
+        void record(WordleGame game) {
+            games++;
+            if (game.isWon()) {
+                wins++;
+                guessDistribution[game.getPreviousGuesses().size()]++;
+            }
+        }
+
+        void add(SimulationResult other) {
+            games += other.games;
+            wins += other.wins;
+            if (other.guessDistribution.length > guessDistribution.length) {
+                guessDistribution = Arrays.copyOf(guessDistribution, other.guessDistribution.length);
+            }
+            for (int i = 0; i < other.guessDistribution.length; i++) {
+                guessDistribution[i] += other.guessDistribution[i];
+            }
+        }
+
+        public int getGames() {
+            return games;
+        }
+
+        public int getWins() {
+            return wins;
+        }
+
+        public int getLosses() {
+            return games - wins;
+        }
+
+        public double getWinRate() {
+            return games == 0 ? 0 : (double) wins / games;
+        }
+
+        public int[] getGuessDistribution() {
+            return guessDistribution.clone();
+        }
+
+        // Среднее число попыток в выигранных играх
+        public double getAverageGuesses() {
+            long total = 0;
+            for (int i = 0; i < guessDistribution.length; i++) {
+                total += (long) i * guessDistribution[i];
+            }
+            return wins == 0 ? 0 : (double) total / wins;
+        }
+
+        public double getGamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : games * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format(Locale.ROOT, "Игр: %d, побед: %d (%.2f%%), поражений: %d%n",
+                    games, wins, getWinRate() * 100, getLosses()));
+            report.append(String.format(Locale.ROOT, "Среднее число попыток: %.3f%n", getAverageGuesses()));
+            for (int i = 1; i < guessDistribution.length; i++) {
+                report.append(String.format(Locale.ROOT, "  %d: %d%n", i, guessDistribution[i]));
+            }
+            report.append(String.format(Locale.ROOT, "Скорость: %.1f игр/с%n", getGamesPerSecond()));
+            return report.toString();
+        }
+    }
+
+    // Запуск: WordleSimulator [файл словаря] [потоков, 0 - виртуальные] [игр, 0 - весь словарь]
+    public static void main(String[] args) throws IOException {
+        String filename = args.length > 0 ? args[0] : "words_ru.txt";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        WordleDictionary dictionary = new WordleDictionaryLoader().loadDictionary(filename);
+        dictionary.precomputePatterns();
+        // Первые два хода одинаковы во всех играх, поэтому берём их из дебютной книги
+        WordleOpeningBook book = WordleOpeningBook.loadOrCompute(dictionary, filename);
+        WordleHintCache cache = new WordleHintCache();
+        WordleSimulator simulator = new WordleSimulator(dictionary,
+                new CachingGuessStrategy(cache, new OpeningBookGuessStrategy(book, new EntropyGuessStrategy())));
+        SimulationResult result = games > 0
+                ? simulator.runRandom(games, threads, 42)
+                : simulator.runAll(threads);
+        System.out.print(result);
+        System.out.print(WordleMetrics.global().dump());
+        System.out.printf(Locale.ROOT, "Кэш подсказок: %.1f%% попаданий, записей: %d%n", cache.getHitRate() * 100, cache.size());
+    }
+}
@@ -0,0 +1,86 @@
+package ru.yandex.practicum;
+
+/*
+хеш-индекс упакованных слов с открытой адресацией
+    ключи - упакованные в long слова, значения - индексы слов в словаре
+    пустая ячейка обозначается нулём, потому что упакованное слово никогда не равно 0
+    поиск не создаёт объектов: ни строк, ни обёрток Long/Integer
+ */
+public final class WordleWordIndex {
+    private final long[] keys;
+    private final int[] values;
+    private final int mask;
+
+    WordleWordIndex(long[] words, int size) {
+        this(size);
+        for (int i = 0; i < size; i++) {
+            add(words[i], i);
+        }
+    }
+
+    // Пустой индекс, рассчитанный не больше чем на expectedSize слов
+    WordleWordIndex(int expectedSize) {
+        // Заполненность не больше половины, чтобы цепочки проб оставались короткими
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    // Индекс из готовых массивов, например прочитанных из двоичного словаря
+    WordleWordIndex(long[] keys, int[] values) {
+        if (keys.length != values.length || Integer.bitCount(keys.length) != 1) {
+            throw new IllegalArgumentException("Некорректный размер хеш-индекса: " + keys.length);
+        }
+        this.keys = keys;
+        this.values = values;
+        this.mask = keys.length - 1;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    int valueAt(int slot) {
+        return values[slot];
+    }
+
+    // Добавление слова; false, если оно уже есть (индекс остаётся у первого вхождения)
+    boolean add(long word, int index) {
+        int slot = slot(word);
+        while (keys[slot] != 0) {
+            if (keys[slot] == word) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = word;
+        values[slot] = index;
+        return true;
+    }
+
+    private int slot(long word) {
+        long hash = word * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    // Индекс упакованного слова или -1
+    public int indexOf(long word) {
+        if (word == WordleAlphabet.INVALID || word == 0) {
+            return -1;
+        }
+        int slot = slot(word);
+        long key;
+        while ((key = keys[slot]) != 0) {
+            if (key == word) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,38 @@
+package ru.yandex.practicum.exception;
+
+// Догадка в сложном режиме не учитывает уже открытые подсказки
+public class HardModeViolationException extends InvalidInputException {
+    private static final long serialVersionUID = 1L;
+
+    // Какое правило нарушено
+    public enum Rule {
+        FIXED_LETTER,
+        REQUIRED_LETTER,
+        BANNED_POSITION,
+        LETTER_LIMIT
+    }
+
+    private final Rule rule;
+    private final char letter;
+    // Позиция с единицы или 0, если правило не относится к позиции
+    private final int position;
+
+    public HardModeViolationException(String message, Rule rule, char letter, int position) {
+        super(message);
+        this.rule = rule;
+        this.letter = letter;
+        this.position = position;
+    }
+
+    public Rule getRule() {
+        return rule;
+    }
+
+    public char getLetter() {
+        return letter;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+}
@@ -5,8 +5,22 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.*;
 import ru.yandex.practicum.exception.*;
 
+import javax.management.ObjectName;
 import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
 
 class WordleTest {
     private WordleDictionary dictionary;
@@ -158,4 +172,1120 @@ class WordleTest {
             System.out.println("Файл words_ru.txt не найден, тест пропущен");
         }
     }
+
+    @Test
+    void testPatternCodes() {
+        // Код подсказки - число в троичной системе, строка декодируется из него
+        int pattern = dictionary.analyzePattern("гонец", "герой");
+        assertEquals("+^-^-", WordleFeedback.toHint(pattern, 5));
+        assertEquals(pattern, WordleFeedback.fromHint("+^-^-"));
+        assertEquals(242, dictionary.analyzePattern("столы", "столы"));
+        assertSame(dictionary.analyzeWord("стула", "столы"), dictionary.analyzeWord("стула", "столы"));
+    }
+
+    @Test
+    void testPatternTableMatchesDirectScoring() {
+        dictionary.precomputePatterns();
+        for (String guess : dictionary.getWords()) {
+            for (String answer : dictionary.getWords()) {
+                int expected = WordleFeedback.score(guess, answer);
+                assertEquals(expected, dictionary.getPattern(dictionary.indexOf(guess), dictionary.indexOf(answer)));
+            }
+        }
+    }
+
+    @Test
+    void testPatternCacheFile() throws IOException {
+        File cache = File.createTempFile("wordle", ".patterns");
+        cache.deleteOnExit();
+        assertTrue(cache.delete());
+
+        dictionary.usePatternCache(cache.getPath());
+        assertTrue(dictionary.getPatternTable().isMapped());
+        assertEquals("++-+-", dictionary.analyzeWord("стула", "столы"));
+
+        // Второй словарь с тем же содержимым переиспользует файл
+        WordleDictionary other = new WordleDictionary(dictionary.getWords());
+        other.usePatternCache(cache.getPath());
+        assertTrue(other.getPatternTable().isMapped());
+        assertEquals("+^-^-", other.analyzeWord("гонец", "герой"));
+    }
+
+    @Test
+    void testFilterWordsMatchesHints() {
+        // Отфильтрованные слова - ровно те, что дали бы ту же подсказку
+        for (String guess : dictionary.getWords()) {
+            for (String answer : dictionary.getWords()) {
+                String hint = dictionary.analyzeWord(guess, answer);
+                List<String> expected = new ArrayList<>();
+                for (String word : dictionary.getWords()) {
+                    if (dictionary.analyzeWord(guess, word).equals(hint)) {
+                        expected.add(word);
+                    }
+                }
+                assertEquals(expected, dictionary.filterWords(List.of(guess), List.of(hint)));
+            }
+        }
+    }
+
+    @Test
+    void testFilterWordsRepeatedLetters() {
+        WordleDictionary testDict = new WordleDictionary(Arrays.asList("банан", "набор", "кабан", "нанка"));
+        String hint = testDict.analyzeWord("банан", "кабан");
+        assertEquals(List.of("кабан"), testDict.filterWords(List.of("банан"), List.of(hint)));
+    }
+
+    @Test
+    void testCandidatesNarrowAfterGuess() {
+        assertEquals(dictionary.size(), game.getCandidateCount());
+
+        game.makeGuess("стула");
+        game.makeGuess("книга");
+
+        List<String> remaining = new ArrayList<>();
+        Iterator<String> iterator = game.candidateIterator();
+        while (iterator.hasNext()) {
+            remaining.add(iterator.next());
+        }
+        assertEquals(dictionary.filterWords(game.getPreviousGuesses(), game.getPreviousHints()), remaining);
+        assertEquals(remaining.size(), game.getCandidateCount());
+        assertTrue(remaining.contains("столы"));
+    }
+
+    @Test
+    void testContainsNormalizesInput() {
+        assertTrue(dictionary.contains("Столы"));
+        assertTrue(dictionary.contains(" КНИГА "));
+        assertFalse(dictionary.contains("стол"));
+        assertFalse(dictionary.contains(null));
+        assertEquals(dictionary.indexOf("груша"), dictionary.getWords().indexOf("груша"));
+
+        WordleDictionary withYo = new WordleDictionary(Arrays.asList("ёлкин"));
+        assertTrue(withYo.contains("Елкин"));
+        assertTrue(withYo.contains("ЁЛКИН"));
+    }
+
+    @Test
+    void testPackedWordsRoundTrip() {
+        WordleDictionary packedDict = new WordleDictionary(Arrays.asList(" Ёжики", "стол", "ПАРУС", "abcde"));
+        assertEquals(List.of("ежики", "парус", "abcde"), packedDict.getWords());
+        assertEquals("парус", packedDict.getWord(packedDict.indexOf("парус")));
+        assertThrows(UnsupportedOperationException.class, () -> packedDict.getWords().add("слово"));
+    }
+
+    @Test
+    void testEntropyStrategySolvesGames() {
+        for (EntropyGuessStrategy.Mode mode : EntropyGuessStrategy.Mode.values()) {
+            for (String answer : dictionary.getWords()) {
+                WordleGame autoGame = new WordleGame(dictionary, answer);
+                autoGame.setGuessStrategy(new EntropyGuessStrategy(mode, 100, 1000));
+                while (!autoGame.isGameFinished()) {
+                    autoGame.makeGuess(autoGame.getHint());
+                }
+                assertTrue(autoGame.isWon(), "Не угадано слово " + answer);
+            }
+        }
+    }
+
+    @Test
+    void testEntropyStrategyOnEmptyCandidates() {
+        WordleGame autoGame = new WordleGame(dictionary, "столы");
+        autoGame.setGuessStrategy(new EntropyGuessStrategy());
+        assertEquals(-1, new EntropyGuessStrategy().bestGuess(dictionary, new long[1]));
+        assertTrue(dictionary.contains(autoGame.getHint()));
+    }
+
+    @Test
+    void testOpeningBookPersistence() throws IOException {
+        File source = File.createTempFile("wordle", ".txt");
+        File bookFile = new File(source.getPath() + WordleOpeningBook.FILE_SUFFIX);
+        source.deleteOnExit();
+        bookFile.deleteOnExit();
+
+        WordleOpeningBook book = WordleOpeningBook.loadOrCompute(dictionary, source.getPath());
+        assertTrue(bookFile.exists());
+        WordleOpeningBook loaded = WordleOpeningBook.loadOrCompute(dictionary, source.getPath());
+        assertTrue(loaded.matches(dictionary));
+        assertEquals(book.getFirstGuess(), loaded.getFirstGuess());
+
+        WordleGame bookGame = new WordleGame(dictionary, "книга");
+        bookGame.setGuessStrategy(new OpeningBookGuessStrategy(loaded, new EntropyGuessStrategy()));
+        String first = bookGame.getHint();
+        assertEquals(dictionary.getWord(book.getFirstGuess()), first);
+        String hint = bookGame.makeGuess(first);
+        if (!bookGame.isGameFinished()) {
+            int second = book.getSecondGuess(WordleFeedback.fromHint(hint));
+            assertEquals(dictionary.getWord(second), bookGame.getHint());
+        }
+
+        // Книга от другого словаря пересчитывается
+        WordleDictionary other = new WordleDictionary(Arrays.asList("столы", "стула", "окнаа"));
+        assertFalse(book.matches(other));
+        assertTrue(WordleOpeningBook.loadOrCompute(other, source.getPath()).matches(other));
+    }
+
+    @Test
+    void testOpeningBookComputedInBackground() throws Exception {
+        File source = File.createTempFile("wordle", ".txt");
+        source.deleteOnExit();
+        Path path = WordleOpeningBook.path(source.getPath(), "/tmp/answers.txt", 5);
+        assertEquals(source.getName() + ".answers.txt" + WordleOpeningBook.FILE_SUFFIX,
+                path.getFileName().toString());
+        path.toFile().deleteOnExit();
+
+        assertNull(WordleOpeningBook.load(dictionary, path));
+        WordleOpeningBook.computeInBackground(dictionary, path).join();
+        WordleOpeningBook book = WordleOpeningBook.load(dictionary, path);
+        assertNotNull(book);
+        assertEquals(WordleOpeningBook.compute(dictionary).getFirstGuess(), book.getFirstGuess());
+    }
+
+    @Test
+    void testOpeningBookRejectsCorruptFile() throws IOException {
+        File source = File.createTempFile("wordle", ".txt");
+        source.deleteOnExit();
+        Path path = WordleOpeningBook.path(source.getPath(), null, 5);
+        path.toFile().deleteOnExit();
+        WordleOpeningBook.compute(dictionary).write(path);
+        byte[] original = Files.readAllBytes(path);
+        // Заголовок - 24 байта, затем по четыре байта на второй ход
+        byte[] negative = original.clone();
+        ByteBuffer.wrap(negative).putInt(24, -5);
+        Files.write(path, negative);
+        assertNull(WordleOpeningBook.read(path));
+
+        // Ход вне словаря: хеш совпадает, но книга словарю не подходит и пересчитывается
+        byte[] foreignGuess = original.clone();
+        ByteBuffer.wrap(foreignGuess).putInt(24, dictionary.size());
+        Files.write(path, foreignGuess);
+        assertNotNull(WordleOpeningBook.read(path));
+        assertNull(WordleOpeningBook.load(dictionary, path));
+        WordleOpeningBook rebuilt = WordleOpeningBook.loadOrCompute(dictionary, source.getPath());
+        assertTrue(rebuilt.matches(dictionary));
+        assertNotNull(WordleOpeningBook.load(dictionary, path));
+    }
+
+    @Test
+    void testCompiledDictionaryRoundTrip() throws IOException {
+        File compiled = File.createTempFile("wordle", WordleDictionaryLoader.COMPILED_SUFFIX);
+        compiled.deleteOnExit();
+
+        WordleDictionaryLoader loader = new WordleDictionaryLoader();
+        loader.writeCompiledDictionary(dictionary, compiled.getPath());
+        WordleDictionary loaded = loader.loadDictionary(compiled.getPath());
+
+        assertEquals(dictionary.getWords(), loaded.getWords());
+        assertEquals(dictionary.getContentHash(), loaded.getContentHash());
+        assertTrue(loaded.contains("вишня"));
+        assertFalse(loaded.contains("абвгд"));
+    }
+
+    @Test
+    void testCorruptedCompiledDictionary() throws IOException {
+        File compiled = File.createTempFile("wordle", WordleDictionaryLoader.COMPILED_SUFFIX);
+        compiled.deleteOnExit();
+
+        WordleDictionaryLoader loader = new WordleDictionaryLoader();
+        loader.writeCompiledDictionary(dictionary, compiled.getPath());
+        try (RandomAccessFile file = new RandomAccessFile(compiled, "rw")) {
+            file.seek(file.length() - 1);
+            file.write(0x7F);
+        }
+        assertThrows(IOException.class, () -> loader.loadCompiledDictionary(compiled.getPath()));
+    }
+
+    @Test
+    void testCachedDictionaryRebuildsMalformedFile() throws IOException {
+        Path source = Files.createTempFile("wordle", ".txt");
+        source.toFile().deleteOnExit();
+        Files.write(source, List.of("кошка", "мышка", "столы"), StandardCharsets.UTF_8);
+        File compiled = new File(WordleDictionaryLoader.compiledFilename(source.toString(), 5));
+        compiled.deleteOnExit();
+
+        WordleDictionaryLoader loader = new WordleDictionaryLoader();
+        loader.loadDictionaryCached(source.toString());
+
+        // Размер хеш-индекса не степень двойки, но контрольная сумма верна
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(compiled.toPath()));
+        bytes.putInt(32 + 3 * 8, 3);
+        CRC32 crc = new CRC32();
+        crc.update(bytes.array(), 32, bytes.capacity() - 32);
+        bytes.putInt(28, (int) crc.getValue());
+        Files.write(compiled.toPath(), bytes.array());
+        compiled.setLastModified(source.toFile().lastModified() + 1000);
+
+        assertThrows(IOException.class, () -> loader.loadCompiledDictionary(compiled.getPath()));
+        WordleDictionary restored = loader.loadDictionaryCached(source.toString());
+        assertEquals(List.of("кошка", "мышка", "столы"), restored.getWords());
+        assertEquals(restored.getContentHash(), loader.loadCompiledDictionary(compiled.getPath()).getContentHash());
+    }
+
+    @Test
+    void testDuplicatesAreDropped() {
+        WordleDictionary withDuplicates = new WordleDictionary(Arrays.asList("столы", "Столы", "книга", "столы"));
+        assertEquals(List.of("столы", "книга"), withDuplicates.getWords());
+    }
+
+    @Test
+    void testParallelLoaderMatchesSequential() throws IOException {
+        File source = File.createTempFile("wordle", ".txt");
+        source.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(source, "UTF-8")) {
+            for (int i = 0; i < 200000; i++) {
+                writer.println(i % 3 == 0 ? "Ёжики" : "слово" + i);
+                writer.println(dictionary.getWord(i % dictionary.size()));
+            }
+        }
+
+        WordleDictionaryLoader loader = new WordleDictionaryLoader();
+        WordleDictionary sequential = loader.loadDictionary(source.getPath());
+        WordleDictionary parallel = loader.loadDictionaryParallel(source.getPath());
+        assertEquals(sequential.getWords(), parallel.getWords());
+        assertEquals(dictionary.size() + 1, parallel.size());
+        assertEquals("ежики", parallel.getWord(0));
+    }
+
+    @Test
+    void testSimulatorPlaysAllAnswers() {
+        WordleSimulator simulator = new WordleSimulator(dictionary, new EntropyGuessStrategy());
+        WordleSimulator.SimulationResult result = simulator.runAll(2);
+        assertEquals(dictionary.size(), result.getGames());
+        assertEquals(dictionary.size(), result.getWins());
+        assertEquals(result.getWins(), Arrays.stream(result.getGuessDistribution()).sum());
+
+        WordleSimulator.SimulationResult virtual = new WordleSimulator(dictionary, null).runRandom(40, 0, 7);
+        assertEquals(40, virtual.getGames());
+        assertEquals(virtual.getWins() + virtual.getLosses(), virtual.getGames());
+    }
+
+    @Test
+    void testSimulatorCountsLongGames() {
+        // Слова из 6 букв различаются последней буквой; первый кандидат по порядку угадывает
+        // последнее слово только седьмой попыткой - это последняя попытка для 6 букв
+        List<String> words = new ArrayList<>();
+        for (char last : "абвгдеж".toCharArray()) {
+            words.add("машин" + last);
+        }
+        WordleDictionary sixLetters = new WordleDictionary(words, 6);
+        GuessStrategy firstCandidate = game -> {
+            int index = 0;
+            while (!game.isCandidate(index)) {
+                index++;
+            }
+            return index;
+        };
+        WordleSimulator.SimulationResult result = new WordleSimulator(sixLetters, firstCandidate).runAll(2);
+        assertEquals(7, result.getWins());
+        assertArrayEquals(new int[] {0, 1, 1, 1, 1, 1, 1, 1}, result.getGuessDistribution());
+    }
+
+    @Test
+    void testSimulatorReportIgnoresDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("ru-RU"));
+            String report = new WordleSimulator(dictionary, new EntropyGuessStrategy()).runAll(1).toString();
+            assertTrue(report.matches("(?s).*Среднее число попыток: \\d+\\.\\d{3}\\R.*"), report);
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void testEventLogWritesAllRecords() throws Exception {
+        File logFile = File.createTempFile("wordle", ".log");
+        logFile.deleteOnExit();
+
+        WordleEventLog log = new WordleEventLog(logFile.getPath(), 1 << 16, 64, 10);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    log.info("auto_move", "thread", thread, "move", i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        log.warn("word_not_found", "guess", "абвгд");
+        log.close();
+
+        List<String> lines = java.nio.file.Files.readAllLines(logFile.toPath());
+        assertEquals(4001, lines.size());
+        assertEquals(0, log.getDroppedCount());
+        assertTrue(lines.get(4000).endsWith("\tWARN\tword_not_found\tguess=абвгд"));
+    }
+
+    @Test
+    void testEventLogKeepsRecordsAcceptedBeforeClose() throws Exception {
+        File logFile = File.createTempFile("wordle", ".log");
+        logFile.deleteOnExit();
+        WordleEventLog log = new WordleEventLog(logFile.getPath(), 1 << 16, 64, 10);
+        LongAdder accepted = new LongAdder();
+        AtomicBoolean closed = new AtomicBoolean();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                while (!closed.get()) {
+                    if (log.info("auto_move")) {
+                        accepted.increment();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        Thread.sleep(20);
+        log.close();
+        closed.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Каждая принятая запись дописана, даже если ячейка была занята в момент закрытия
+        long written = java.nio.file.Files.readAllLines(logFile.toPath()).size();
+        assertEquals(accepted.sum(), written);
+        assertFalse(log.info("after_close"));
+    }
+
+    @Test
+    void testEventLogDropsWhenFull() throws Exception {
+        File logFile = File.createTempFile("wordle", ".log");
+        logFile.deleteOnExit();
+
+        try (WordleEventLog log = new WordleEventLog(logFile.getPath(), 2, 1, 10)) {
+            int accepted = 0;
+            for (int i = 0; i < 10000; i++) {
+                if (log.info("move", "n", i)) {
+                    accepted++;
+                }
+            }
+            assertEquals(10000, accepted + log.getDroppedCount());
+        }
+    }
+
+    @Test
+    void testSeededGamesAreReproducible() {
+        WordleGame first = new WordleGame(dictionary, 12345L);
+        WordleGame second = new WordleGame(dictionary, 12345L);
+        assertEquals(first.getAnswer(), second.getAnswer());
+        while (!first.isGameFinished()) {
+            String hint = first.getHint();
+            assertEquals(hint, second.getHint());
+            assertEquals(first.makeGuess(hint), second.makeGuess(hint));
+        }
+    }
+
+    @Test
+    void testSharedDictionaryAcrossThreads() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 200; i++) {
+                        WordleGame shared = new WordleGame(dictionary);
+                        while (!shared.isGameFinished() && shared.getCandidateCount() > 0) {
+                            shared.makeGuess(shared.getHint());
+                        }
+                        assertTrue(dictionary.contains(shared.getAnswer()));
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(errors.isEmpty(), errors.toString());
+    }
+
+    @Test
+    void testServerPlaysGame() throws Exception {
+        try (WordleServer server = new WordleServer(dictionary, new EntropyGuessStrategy(), 0,
+                new WordleSessionStore(10, 60_000))) {
+            server.start();
+            String base = "http://localhost:" + server.getPort() + "/games";
+
+            HttpResponse<String> created = send(HttpRequest.newBuilder(URI.create(base))
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+            assertEquals(201, created.statusCode());
+            String id = created.body().replaceAll(".*\"id\":\"([0-9a-f]+)\".*", "$1");
+
+            HttpResponse<String> hint = send(HttpRequest.newBuilder(URI.create(base + "/" + id + "/hint")).GET());
+            assertEquals(200, hint.statusCode());
+            String word = hint.body().replaceAll(".*\"word\":\"([^\"]+)\".*", "$1");
+            assertTrue(dictionary.contains(word));
+
+            // Неизвестное слово проверяем до хода: первый ход может сразу закончить игру
+            HttpResponse<String> unknown = send(HttpRequest.newBuilder(URI.create(base + "/" + id + "/guess"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"word\": \"абвгд\"}")));
+            assertEquals(422, unknown.statusCode());
+
+            HttpResponse<String> guess = send(HttpRequest.newBuilder(URI.create(base + "/" + id + "/guess"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"word\": \"" + word + "\"}")));
+            assertEquals(200, guess.statusCode());
+            assertTrue(guess.body().contains("\"remainingSteps\":5"));
+
+            // Строка JSON с \\uXXXX раскодируется до хода, битая - отклоняется; для этого - новая игра
+            String other = send(HttpRequest.newBuilder(URI.create(base)).POST(HttpRequest.BodyPublishers.noBody()))
+                    .body().replaceAll(".*\"id\":\"([0-9a-f]+)\".*", "$1");
+            HttpResponse<String> broken = send(HttpRequest.newBuilder(URI.create(base + "/" + other + "/guess"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"word\": \"\\u04\"}")));
+            assertEquals(400, broken.statusCode());
+            StringBuilder escaped = new StringBuilder();
+            for (char c : dictionary.getWord(0).toCharArray()) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            }
+            HttpResponse<String> encoded = send(HttpRequest.newBuilder(URI.create(base + "/" + other + "/guess"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"word\": \"" + escaped + "\"}")));
+            assertEquals(200, encoded.statusCode());
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testSessionStoreBoundsAndEviction() throws InterruptedException {
+        try (WordleSessionStore store = new WordleSessionStore(2, 50)) {
+            WordleSessionStore.Session first = store.create(new WordleGame(dictionary));
+            assertTrue(first.getId().matches("[0-9a-f]{32}"));
+            store.create(new WordleGame(dictionary));
+            assertThrows(IllegalStateException.class, () -> store.create(new WordleGame(dictionary)));
+
+            Thread.sleep(120);
+            assertNull(store.get(first.getId()));
+            assertNotNull(store.create(new WordleGame(dictionary)));
+        }
+    }
+
+    @Test
+    void testSnapshotRestore() {
+        game.makeGuess("стула");
+        game.makeGuess("книга");
+        byte[] snapshot = game.snapshot();
+        assertTrue(snapshot.length <= 12, "Снимок занимает " + snapshot.length + " байт");
+
+        WordleGame restored = WordleGame.restore(new WordleDictionary(dictionary.getWords()), snapshot);
+        assertEquals(game.getAnswer(), restored.getAnswer());
+        assertEquals(game.getPreviousGuesses(), restored.getPreviousGuesses());
+        assertEquals(game.getPreviousHints(), restored.getPreviousHints());
+        assertEquals(game.getRemainingSteps(), restored.getRemainingSteps());
+        assertEquals(game.getCandidateCount(), restored.getCandidateCount());
+
+        restored.makeGuess("столы");
+        assertTrue(restored.isWon());
+        assertTrue(WordleGame.restore(dictionary, restored.snapshot()).isWon());
+    }
+
+    @Test
+    void testSnapshotRejectsOtherDictionary() {
+        byte[] snapshot = game.snapshot();
+        WordleDictionary other = new WordleDictionary(Arrays.asList("столы", "стула", "окнаа"));
+        assertThrows(IllegalArgumentException.class, () -> WordleGame.restore(other, snapshot));
+        assertThrows(IllegalArgumentException.class,
+                () -> WordleGame.restore(dictionary, Arrays.copyOf(snapshot, 2)));
+    }
+
+    @Test
+    void testSnapshotRejectsForgedPattern() {
+        game.makeGuess("стула");
+        byte[] snapshot = game.snapshot();
+        // Последний байт - подсказка единственного хода
+        snapshot[snapshot.length - 1] ^= 1;
+        assertThrows(IllegalArgumentException.class, () -> WordleGame.restore(dictionary, snapshot));
+    }
+
+    @Test
+    void testHintCacheReusesHistory() {
+        WordleHintCache cache = new WordleHintCache(64);
+        List<String> guesses = List.of("стула");
+        List<String> hints = List.of(dictionary.analyzeWord("стула", "столы"));
+
+        assertEquals(dictionary.filterWords(guesses, hints), cache.filterWords(dictionary, guesses, hints));
+        assertEquals(dictionary.filterWords(guesses, hints), cache.filterWords(dictionary, guesses, hints));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        CachingGuessStrategy strategy = new CachingGuessStrategy(cache, new EntropyGuessStrategy());
+        for (int i = 0; i < 3; i++) {
+            WordleGame cachedGame = new WordleGame(dictionary, "столы");
+            cachedGame.setGuessStrategy(strategy);
+            while (!cachedGame.isGameFinished()) {
+                cachedGame.makeGuess(cachedGame.getHint());
+            }
+            assertTrue(cachedGame.isWon());
+        }
+        assertTrue(cache.getHits() > cache.getMisses());
+    }
+
+    @Test
+    void testHintCacheSkipsTruncatedChoices() {
+        WordleHintCache cache = new WordleHintCache(64);
+        int[] calls = new int[2];
+        GuessStrategy truncated = new GuessStrategy() {
+            @Override
+            public int chooseGuess(WordleGame game) {
+                return choose(game).getGuess();
+            }
+
+            @Override
+            public Choice choose(WordleGame game) {
+                calls[0]++;
+                return new Choice(dictionary.indexOf("стула"), false);
+            }
+        };
+        GuessStrategy complete = game -> {
+            calls[1]++;
+            return dictionary.indexOf("столы");
+        };
+
+        WordleGame cachedGame = new WordleGame(dictionary, "столы");
+        assertEquals(dictionary.indexOf("стула"), cache.suggestion(cachedGame, truncated));
+        assertEquals(dictionary.indexOf("стула"), cache.suggestion(cachedGame, truncated));
+        assertEquals(2, calls[0]);
+
+        // У другой стратегии свой ключ: чужой ход из кэша она не получает
+        assertEquals(dictionary.indexOf("столы"), cache.suggestion(cachedGame, complete));
+        assertEquals(dictionary.indexOf("столы"), cache.suggestion(cachedGame, complete));
+        assertEquals(1, calls[1]);
+    }
+
+    @Test
+    void testHintCacheEvictsOldEntries() {
+        WordleHintCache cache = new WordleHintCache(16);
+        for (String guess : dictionary.getWords()) {
+            for (String answer : dictionary.getWords()) {
+                cache.candidates(dictionary, List.of(guess), List.of(dictionary.analyzeWord(guess, answer)));
+            }
+        }
+        assertTrue(cache.size() <= 16);
+        assertTrue(cache.getEvictions() > 0);
+    }
+
+    @Test
+    void testMetricsTrackGames() throws Exception {
+        WordleMetrics metrics = WordleMetrics.global();
+        long guesses = metrics.getGuessCount();
+        long wins = metrics.getGamesWon();
+        long losses = metrics.getGamesLost();
+
+        game.getHint();
+        game.makeGuess("стула");
+        game.makeGuess("столы");
+        WordleGame lost = new WordleGame(dictionary, "книга");
+        for (int i = 0; i < 6; i++) {
+            lost.makeGuess("стула");
+        }
+
+        assertTrue(metrics.getGuessCount() >= guesses + 8);
+        assertTrue(metrics.getGamesWon() >= wins + 1);
+        assertTrue(metrics.getGamesLost() >= losses + 1);
+        assertTrue(metrics.dump().contains("make_guess.p99_us"));
+
+        metrics.registerMBean();
+        ObjectName name = new ObjectName(WordleMetrics.OBJECT_NAME);
+        Object count = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "GuessCount");
+        assertTrue((Long) count >= guesses + 8);
+    }
+
+    @Test
+    void testMetricsDumpIgnoresDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("ru-RU"));
+            game.makeGuess("стула");
+            String dump = WordleMetrics.global().dump();
+            assertTrue(dump.matches("(?s).*\\nmake_guess\\.mean_us \\d+\\.\\d\\n.*"), dump);
+            assertFalse(dump.contains(","));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void testHistogramPercentiles() {
+        WordleHistogram histogram = new WordleHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean(), 1e-9);
+        long p50 = histogram.getPercentile(0.5);
+        assertTrue(p50 >= 500 && p50 < 1024, "p50 = " + p50);
+    }
+
+    @Test
+    void testRegistryPartitionsByLength() throws IOException {
+        File source = File.createTempFile("wordle", ".txt");
+        source.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(source, "UTF-8")) {
+            for (String word : List.of("кот", "Столы", "лиса", "гитара", "книга", "Ёжик", "столы", "слон", "окошко")) {
+                writer.println(word);
+            }
+        }
+
+        WordleDictionaryRegistry registry = new WordleDictionaryLoader().loadRegistry(source.getPath());
+        assertEquals(List.of(3, 4, 5, 6), registry.getWordLengths());
+        assertEquals(List.of("лиса", "ежик", "слон"), registry.get(4).getWords());
+        assertEquals(List.of("столы", "книга"), registry.get(5).getWords());
+        assertEquals(5, registry.getDefault().getWordLength());
+        assertFalse(registry.supports(7));
+        assertThrows(IllegalArgumentException.class, () -> registry.get(7));
+    }
+
+    @Test
+    void testGameUsesPartitionLength() {
+        WordleDictionaryRegistry registry = new WordleDictionaryRegistry(
+                List.of("гитара", "окошко", "машина", "столы", "кошка"));
+        WordleGame sixLetters = new WordleGame(registry.get(6), "машина");
+        assertEquals(7, sixLetters.getRemainingSteps());
+        assertEquals(6, new WordleGame(registry.get(5), "кошка").getRemainingSteps());
+
+        assertThrows(InvalidWordLengthException.class, () -> sixLetters.makeGuess("кошка"));
+        assertEquals("-^-^-+", sixLetters.makeGuess("гитара"));
+        assertEquals("++++++", sixLetters.makeGuess("машина"));
+        assertTrue(sixLetters.isWon());
+    }
+
+    @Test
+    void testSnapshotLongWords() {
+        WordleDictionary sevenLetters = new WordleDictionary(List.of("историй", "планета", "картина"), 7);
+        WordleGame original = new WordleGame(sevenLetters, "картина");
+        original.makeGuess("планета");
+        WordleGame restored = WordleGame.restore(sevenLetters, original.snapshot());
+        assertEquals(original.getPreviousHints(), restored.getPreviousHints());
+        assertEquals(original.getCandidateCount(), restored.getCandidateCount());
+        assertEquals(7, restored.getRemainingSteps());
+    }
+
+    @Test
+    void testCompiledDictionaryKeepsLength() throws IOException {
+        WordleDictionary sixLetters = new WordleDictionary(List.of("гитара", "окошко", "машина"), 6);
+        File compiled = File.createTempFile("wordle", WordleDictionaryLoader.COMPILED_SUFFIX);
+        compiled.deleteOnExit();
+
+        WordleDictionaryLoader loader = new WordleDictionaryLoader();
+        loader.writeCompiledDictionary(sixLetters, compiled.getPath());
+        assertEquals(6, loader.loadCompiledDictionary(compiled.getPath()).getWordLength());
+        assertEquals(sixLetters.getWords(), loader.loadDictionary(compiled.getPath(), 6).getWords());
+        assertThrows(IOException.class, () -> loader.loadDictionary(compiled.getPath()));
+    }
+
+    @Test
+    void testDictionaryManagerReloadKeepsRunningGames() throws IOException {
+        File source = File.createTempFile("wordle", ".txt");
+        source.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(source, "UTF-8")) {
+            writer.println("столы");
+            writer.println("книга");
+        }
+
+        try (WordleDictionaryManager manager = new WordleDictionaryManager(source.getPath())) {
+            WordleGame running = new WordleGame(manager.getDictionary(), "книга");
+            try (PrintWriter writer = new PrintWriter(source, "UTF-8")) {
+                writer.println("груша");
+            }
+            assertTrue(manager.reload());
+            assertEquals(2, manager.getVersion());
+            assertEquals(List.of("груша"), manager.getDictionary().getWords());
+
+            // Начатая игра доигрывается на своей версии словаря
+            assertEquals("+++++", running.makeGuess("книга"));
+
+            // Сломанный файл не заменяет рабочую версию
+            try (PrintWriter writer = new PrintWriter(source, "UTF-8")) {
+                writer.println("!!!");
+            }
+            assertFalse(manager.reload());
+            assertNotNull(manager.getLastFailure());
+            assertEquals(List.of("груша"), manager.getDictionary().getWords());
+        }
+    }
+
+    @Test
+    void testDictionaryManagerWatchesFile() throws Exception {
+        File source = File.createTempFile("wordle", ".txt");
+        source.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(source, "UTF-8")) {
+            writer.println("столы");
+        }
+
+        try (WordleDictionaryManager manager = new WordleDictionaryManager(source.getPath())) {
+            manager.watch();
+            try (PrintWriter writer = new PrintWriter(source, "UTF-8")) {
+                writer.println("вишня");
+                writer.println("банан");
+            }
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (manager.getVersion() == 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(List.of("вишня", "банан"), manager.getDictionary().getWords());
+        }
+    }
+
+    @Test
+    void testMultiBoardScoresAllBoards() {
+        MultiBoardGame quordle = new MultiBoardGame(dictionary, List.of("столы", "книга", "банан", "груша"));
+        assertEquals(9, quordle.getRemainingSteps());
+
+        List<String> hints = quordle.makeGuess("стула");
+        assertEquals(List.of(
+                dictionary.analyzeWord("стула", "столы"),
+                dictionary.analyzeWord("стула", "книга"),
+                dictionary.analyzeWord("стула", "банан"),
+                dictionary.analyzeWord("стула", "груша")), hints);
+        for (int b = 0; b < quordle.getBoardCount(); b++) {
+            WordleGame single = new WordleGame(dictionary, quordle.getAnswer(b));
+            single.makeGuess("стула");
+            assertEquals(single.getCandidateCount(), quordle.getCandidateCount(b));
+        }
+
+        // Решённая доска больше не получает подсказок
+        quordle.makeGuess("книга");
+        assertTrue(quordle.isSolved(1));
+        assertNull(quordle.makeGuess("банан").get(1));
+        assertEquals(List.of("----+", "+++++"), quordle.getPreviousHints(1));
+        assertEquals(1, quordle.getSolvedAt(1));
+    }
+
+    @Test
+    void testMultiBoardHintSolvesAllBoards() {
+        MultiBoardGame octordle = new MultiBoardGame(dictionary, 8, 7L);
+        assertEquals(13, octordle.getRemainingSteps());
+        while (!octordle.isGameFinished()) {
+            octordle.makeGuess(octordle.getHint());
+        }
+        assertTrue(octordle.isWon());
+        assertEquals(8, octordle.getSolvedCount());
+    }
+
+    @Test
+    void testDecisionTreeSolvesEveryWord() throws IOException {
+        WordleDecisionTree tree = WordleDecisionTree.build(dictionary);
+        WordleDecisionTree greedy = new WordleDecisionTreeBuilder(dictionary, 1, 0,
+                ForkJoinPool.commonPool()).build();
+        assertTrue(tree.getTotalGuesses() <= greedy.getTotalGuesses());
+
+        File file = File.createTempFile("wordle", WordleDecisionTree.FILE_SUFFIX);
+        file.deleteOnExit();
+        tree.write(file.toPath());
+        WordleDecisionTree loaded = WordleDecisionTree.read(file.toPath());
+        assertNotNull(loaded);
+        assertTrue(loaded.matches(dictionary));
+        assertEquals(tree.getTotalGuesses(), loaded.getTotalGuesses());
+
+        GuessStrategy strategy = new DecisionTreeGuessStrategy(loaded, new EntropyGuessStrategy());
+        long total = 0;
+        for (String answer : dictionary.getWords()) {
+            WordleGame played = new WordleGame(dictionary, answer);
+            played.setGuessStrategy(strategy);
+            while (!played.isGameFinished()) {
+                played.makeGuess(played.getHint());
+            }
+            assertTrue(played.isWon(), answer);
+            total += played.getPreviousGuesses().size();
+        }
+        assertEquals(loaded.getTotalGuesses(), total);
+        assertEquals((double) total / dictionary.size(), loaded.getAverageGuesses(), 1e-9);
+    }
+
+    @Test
+    void testDecisionTreeRejectsCorruptFile() throws IOException {
+        WordleDecisionTree tree = WordleDecisionTree.build(dictionary);
+        File file = File.createTempFile("wordle", WordleDecisionTree.FILE_SUFFIX);
+        file.deleteOnExit();
+        tree.write(file.toPath());
+        byte[] original = Files.readAllBytes(file.toPath());
+        // Заголовок - 24 байта, затем по 5 байт на узел, затем начала списков переходов
+        int firstEdges = 24 + 5 * tree.getNodeCount();
+
+        byte[] decreasing = original.clone();
+        ByteBuffer.wrap(decreasing).putInt(firstEdges + 4, tree.getNodeCount());
+        Files.write(file.toPath(), decreasing);
+        assertNull(WordleDecisionTree.read(file.toPath()));
+
+        // Догадка вне словаря: хеш совпадает, но дерево словарю не подходит
+        byte[] foreignGuess = original.clone();
+        ByteBuffer.wrap(foreignGuess).putInt(24, dictionary.size());
+        Files.write(file.toPath(), foreignGuess);
+        WordleDecisionTree loaded = WordleDecisionTree.read(file.toPath());
+        assertNotNull(loaded);
+        assertFalse(loaded.matches(dictionary));
+        WordleGame game = new WordleGame(dictionary, "книга");
+        game.setGuessStrategy(new DecisionTreeGuessStrategy(loaded, new EntropyGuessStrategy()));
+        assertTrue(dictionary.contains(game.getHint()));
+    }
+
+    @Test
+    void testDecisionTreeFallsBackOffPolicy() {
+        WordleDecisionTree tree = WordleDecisionTree.build(dictionary);
+        WordleGame offPolicy = new WordleGame(dictionary, "груша");
+        String first = dictionary.getWord(tree.getGuess(0));
+        offPolicy.makeGuess(first.equals("дыняк") ? "апрел" : "дыняк");
+        assertEquals(-1, tree.nextGuess(dictionary, offPolicy.getPreviousGuesses(), offPolicy.getPreviousHints()));
+
+        offPolicy.setGuessStrategy(new DecisionTreeGuessStrategy(tree, new EntropyGuessStrategy()));
+        assertTrue(dictionary.contains(offPolicy.getHint()));
+        WordleDictionary other = new WordleDictionary(List.of("столы", "книга"));
+        assertFalse(tree.matches(other));
+    }
+
+    @Test
+    void testHardModeRejectsIgnoredHints() {
+        game.setHardMode(true);
+        assertEquals("++-+-", game.makeGuess("стула"));
+
+        HardModeViolationException fixed = assertThrows(HardModeViolationException.class,
+                () -> game.makeGuess("книга"));
+        assertEquals(HardModeViolationException.Rule.FIXED_LETTER, fixed.getRule());
+        assertEquals(1, fixed.getPosition());
+        assertEquals('с', fixed.getLetter());
+
+        // Отклонённая догадка не тратит попытку
+        assertEquals(5, game.getRemainingSteps());
+        assertEquals("+++++", game.makeGuess("столы"));
+    }
+
+    @Test
+    void testHardModeLetterCounts() {
+        WordleDictionary words = new WordleDictionary(List.of("шалаш", "шашка", "кашка", "лапша",
+                "пашня", "шапка", "шпала"));
+        WordleGame hard = new WordleGame(words, "шапка");
+        hard.setHardMode(true);
+        hard.makeGuess("шалаш");
+
+        HardModeViolationException limit = assertThrows(HardModeViolationException.class,
+                () -> hard.makeGuess("шашка"));
+        assertEquals(HardModeViolationException.Rule.LETTER_LIMIT, limit.getRule());
+        assertEquals('ш', limit.getLetter());
+        HardModeViolationException fixed = assertThrows(HardModeViolationException.class,
+                () -> hard.makeGuess("лапша"));
+        assertEquals(HardModeViolationException.Rule.FIXED_LETTER, fixed.getRule());
+
+        // Подсказка в сложном режиме всегда допустимый ход
+        hard.setGuessStrategy(new EntropyGuessStrategy());
+        while (!hard.isGameFinished()) {
+            hard.makeGuess(hard.getHint());
+        }
+        assertTrue(hard.isWon());
+    }
+
+    @Test
+    void testHardModeSurvivesSnapshot() {
+        game.setHardMode(true);
+        game.makeGuess("стула");
+        WordleGame restored = WordleGame.restore(dictionary, game.snapshot());
+        assertTrue(restored.isHardMode());
+        assertThrows(HardModeViolationException.class, () -> restored.makeGuess("книга"));
+    }
+
+    @Test
+    void testAdversarialKeepsLargestGroup() {
+        WordleGame absurdle = WordleGame.adversarial(dictionary);
+        assertNull(absurdle.getAnswer());
+
+        Map<String, Integer> groups = new HashMap<>();
+        for (String word : dictionary.getWords()) {
+            groups.merge(dictionary.analyzeWord("банан", word), 1, Integer::sum);
+        }
+        int largest = Collections.max(groups.values());
+
+        String hint = absurdle.makeGuess("банан");
+        assertEquals(largest, absurdle.getCandidateCount());
+        assertEquals(largest, (int) groups.get(hint));
+        assertNotEquals("+++++", hint);
+        assertNull(absurdle.getAnswer());
+    }
+
+    @Test
+    void testAdversarialGameEnds() {
+        WordleGame absurdle = WordleGame.adversarial(dictionary);
+        absurdle.makeGuess("столы");
+        WordleGame restored = WordleGame.restore(dictionary, absurdle.snapshot());
+        assertTrue(restored.isAdversarial());
+        assertEquals(absurdle.getCandidateCount(), restored.getCandidateCount());
+
+        absurdle.setGuessStrategy(new EntropyGuessStrategy());
+        while (!absurdle.isGameFinished()) {
+            absurdle.makeGuess(absurdle.getHint());
+        }
+        // Ответ раскрывается в конце и согласуется со всеми подсказками
+        String answer = absurdle.getAnswer();
+        assertNotNull(answer);
+        for (int i = 0; i < absurdle.getPreviousGuesses().size(); i++) {
+            assertEquals(absurdle.getPreviousHints().get(i),
+                    dictionary.analyzeWord(absurdle.getPreviousGuesses().get(i), answer));
+        }
+        assertEquals(absurdle.isWon(), answer.equals(absurdle.getPreviousGuesses().get(
+                absurdle.getPreviousGuesses().size() - 1)));
+    }
+
+    @Test
+    void testCountPatternsWithoutTable() {
+        // Словарь больше таблицы подсказок: раскладка идёт параллельными кусками
+        SplittableRandom random = new SplittableRandom(11);
+        List<String> words = new ArrayList<>();
+        while (words.size() < 20000) {
+            char[] letters = new char[5];
+            for (int i = 0; i < letters.length; i++) {
+                letters[i] = (char) ('а' + random.nextInt(32));
+            }
+            words.add(new String(letters));
+        }
+        WordleDictionary large = new WordleDictionary(words);
+        assertNull(large.getPatternTable());
+
+        long[] all = large.getCandidateIndex().all();
+        int[] histogram = new int[WordleFeedback.patternCount(5)];
+        large.countPatterns(7, all, histogram);
+        int[] expected = new int[histogram.length];
+        for (int i = 0; i < large.size(); i++) {
+            expected[WordleFeedback.score(large.getWord(7), large.getWord(i))]++;
+        }
+        assertArrayEquals(expected, histogram);
+    }
+
+    @Test
+    void testSingleLookupsDoNotAllocateTable() {
+        WordleDictionary fresh = new WordleDictionary(dictionary.getWords());
+        assertEquals("+++++", fresh.analyzeWord("столы", "столы"));
+        assertEquals(WordleFeedback.score("книга", "мышка"),
+                fresh.getPattern(fresh.indexOf("книга"), fresh.indexOf("мышка")));
+        new WordleGame(fresh, "книга").makeGuess("мышка");
+        assertFalse(fresh.hasPatternTable());
+
+        fresh.precomputePatterns();
+        assertTrue(fresh.hasPatternTable());
+        assertEquals(WordleFeedback.score("книга", "мышка"),
+                fresh.getPattern(fresh.indexOf("книга"), fresh.indexOf("мышка")));
+    }
+
+    @Test
+    void testBatchScorerMatchesFeedback() {
+        // Короткий алфавит даёт много повторяющихся букв
+        SplittableRandom random = new SplittableRandom(5);
+        for (int length : new int[] {3, 5, 7, 10}) {
+            List<String> words = new ArrayList<>();
+            for (int n = 0; n < 200; n++) {
+                char[] letters = new char[length];
+                for (int i = 0; i < length; i++) {
+                    letters[i] = "аобкл".charAt(random.nextInt(5));
+                }
+                words.add(new String(letters));
+            }
+            WordleDictionary batch = new WordleDictionary(words, length);
+            int[] answers = new int[batch.size()];
+            for (int i = 0; i < answers.length; i++) {
+                answers[i] = i;
+            }
+            WordleBatchScorer scorer = new WordleBatchScorer(length);
+            int[] histogram = new int[WordleFeedback.patternCount(length)];
+            for (int guess = 0; guess < batch.size(); guess += 7) {
+                scorer.setGuess(batch.getPackedWord(guess));
+                int[] expected = new int[histogram.length];
+                for (int answer : answers) {
+                    int pattern = WordleFeedback.score(batch.getWord(guess), batch.getWord(answer));
+                    assertEquals(pattern, scorer.score(batch.getPackedWord(answer)));
+                    expected[pattern]++;
+                }
+                batch.countPatterns(guess, answers, answers.length, histogram);
+                assertArrayEquals(expected, histogram);
+            }
+        }
+    }
+
+    @Test
+    void testBatchScoringWithTable() {
+        int[] answers = {0, 3, 5, 8, 13};
+        byte[] patterns = new byte[answers.length];
+        dictionary.precomputePatterns();
+        dictionary.scorePatterns(2, answers, answers.length, patterns);
+        for (int i = 0; i < answers.length; i++) {
+            assertEquals(WordleFeedback.score(dictionary.getWord(2), dictionary.getWord(answers[i])),
+                    patterns[i] & 0xFF);
+        }
+
+        long[] candidates = dictionary.getCandidateIndex().all();
+        int pattern = dictionary.getPattern(2, 13);
+        int kept = dictionary.retainMatching(2, pattern, candidates);
+        assertEquals(kept, WordleCandidateIndex.count(candidates));
+        for (int i = 0; i < dictionary.size(); i++) {
+            boolean candidate = (candidates[i >>> 6] & (1L << i)) != 0;
+            assertEquals(dictionary.getPattern(2, i) == pattern, candidate);
+        }
+    }
+
+    @Test
+    void testAnswerPoolSeparateFromGuesses() {
+        WordleDictionary pools = new WordleDictionary(List.of("книга", "столы", "кошка"),
+                List.of("аорта", "книга", "кашка", "шалаш"), 5);
+        assertEquals(6, pools.size());
+        assertEquals(3, pools.getAnswerCount());
+        assertEquals(List.of("книга", "столы", "кошка"), pools.getAnswers());
+        assertTrue(pools.contains("шалаш"));
+        assertFalse(pools.containsAnswer("шалаш"));
+        assertNotEquals(new WordleDictionary(pools.getWords()).getContentHash(), pools.getContentHash());
+        for (int i = 0; i < 20; i++) {
+            assertTrue(pools.containsAnswer(pools.getRandomWord()));
+        }
+
+        // Слово только из пула догадок принимается, но кандидатом не становится
+        WordleGame game = new WordleGame(pools, "кошка");
+        assertEquals(3, game.getCandidateCount());
+        assertEquals("+-+++", game.makeGuess("кашка"));
+        assertEquals(1, game.getCandidateCount());
+        assertEquals(List.of("кошка"), pools.filterWords(List.of("кашка"), List.of("+-+++")));
+        assertEquals(3, pools.getPatternTable().answerCount());
+        assertEquals(WordleFeedback.score("шалаш", "столы"),
+                pools.getPattern(pools.indexOf("шалаш"), pools.indexOf("столы")));
+
+        // Слово только из пула догадок загадать нельзя - через подсказки его не найти
+        assertThrows(WordNotFoundInDictionaryException.class, () -> new WordleGame(pools, "шалаш"));
+        assertThrows(IllegalArgumentException.class, () -> new MultiBoardGame(pools, List.of("кошка", "шалаш")));
+    }
+
+    @Test
+    void testLoaderReadsAnswerAndGuessFiles() throws IOException {
+        File answers = File.createTempFile("wordle", ".txt");
+        File guesses = File.createTempFile("wordle", ".txt");
+        File compiled = File.createTempFile("wordle", WordleDictionaryLoader.COMPILED_SUFFIX);
+        answers.deleteOnExit();
+        guesses.deleteOnExit();
+        compiled.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(answers, "UTF-8")) {
+            writer.println("столы");
+            writer.println("гитара");
+        }
+        try (PrintWriter writer = new PrintWriter(guesses, "UTF-8")) {
+            for (String word : List.of("книга", "столы", "окошко", "машина", "кот")) {
+                writer.println(word);
+            }
+        }
+
+        WordleDictionaryLoader loader = new WordleDictionaryLoader();
+        WordleDictionary dictionary = loader.loadDictionary(answers.getPath(), guesses.getPath());
+        assertEquals(List.of("столы", "книга"), dictionary.getWords());
+        assertEquals(1, dictionary.getAnswerCount());
+
+        loader.writeCompiledDictionary(dictionary, compiled.getPath());
+        WordleDictionary restored = loader.loadCompiledDictionary(compiled.getPath());
+        assertEquals(1, restored.getAnswerCount());
+        assertEquals(dictionary.getContentHash(), restored.getContentHash());
+
+        // Длины без ответов не загадываются, даже если в списке догадок такие слова есть
+        WordleDictionaryRegistry registry = loader.loadRegistry(answers.getPath(), guesses.getPath());
+        assertEquals(List.of(5, 6), registry.getWordLengths());
+        assertEquals(List.of("гитара"), registry.get(6).getAnswers());
+        assertEquals(List.of("гитара", "окошко", "машина"), registry.get(6).getWords());
+    }
 }